@@ -0,0 +1,33 @@
+package com.example.app;
+
+import com.example.factory.StorageFactory;
+import com.example.loadtest.LoadTest;
+import com.example.loadtest.LoadTestConfig;
+import com.example.service.TodoService;
+import com.example.storage.TodoStorage;
+
+import java.util.Properties;
+
+/**
+ * Runs a {@link LoadTest} against any {@link StorageFactory} backend.
+ * <p>
+ * Settings come from {@code -Dloadtest.*} system properties (see
+ * {@link LoadTestConfig}). Connection settings use the factory's keys and
+ * the same environment variables as {@link Main}, and system properties
+ * override both. Use {@code -Dloadtest.storage=h2} or
+ * {@code -Dloadtest.storage=memory} for a fully local run.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        Properties props = Main.loadPropertiesFromEnv();
+        props.putAll(System.getProperties());
+
+        LoadTestConfig config = LoadTestConfig.fromProperties(props);
+        try (TodoStorage storage = StorageFactory.create(config.storageType(), props)) {
+            new LoadTest(config, new TodoService(storage)).run(storage);
+        }
+    }
+}
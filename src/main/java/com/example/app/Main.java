@@ -3,10 +3,15 @@ package com.example.app;
 import com.example.factory.StorageFactory;
 import com.example.model.Todo;
 import com.example.service.TodoService;
+import com.example.service.purge.CompletedTodoPurger;
+import com.example.service.purge.PurgeOptions;
+import com.example.service.search.TodoSearchIndex;
 import com.example.storage.TodoStorage;
+import com.example.storage.snapshot.SnapshotOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.Properties;
 import java.util.Scanner;
 
@@ -21,13 +26,28 @@ public final class Main {
         String storageType = showDatabaseMenu();
         logger.info("User selected database: {}", storageType);
 
-        TodoStorage storage = StorageFactory.create(storageType, props);
-        TodoService service = new TodoService(storage);
+        try (TodoStorage storage = StorageFactory.create(storageType, props)) {
+            SnapshotOptions snapshotOptions = SnapshotOptions.fromProperties(props);
+            TodoService service;
+            if (Boolean.parseBoolean(props.getProperty("search.enabled", "true"))) {
+                service = new TodoService(storage, new TodoSearchIndex(), snapshotOptions);
+                service.rebuildSearchIndex();
+            } else {
+                service = new TodoService(storage, null, snapshotOptions);
+            }
+
+            try (CompletedTodoPurger purger = new CompletedTodoPurger(service, PurgeOptions.fromProperties(props))) {
+                long purgeInterval = Long.parseLong(props.getProperty("purge.intervalSeconds", "0"));
+                if (purgeInterval > 0) {
+                    purger.start(purgeInterval);
+                }
 
-        logger.info("Started TODO CLI using storage: {}", storageType);
+                logger.info("Started TODO CLI using storage: {}", storageType);
 
-        if (System.getProperty("skipCli") == null) {
-            runCli(service);
+                if (System.getProperty("skipCli") == null) {
+                    runCli(service, purger);
+                }
+            }
         }
 
         logger.info("Shutting down CLI.");
@@ -41,7 +61,8 @@ public final class Main {
         logger.info("1. MySQL");
         logger.info("2. MongoDB");
         logger.info("3. PostgreSQL");
-        logger.info("Enter choice (1-3): ");
+        logger.info("4. MongoDB (async driver)");
+        logger.info("Enter choice (1-4): ");
         System.out.flush();
 
         String choice = sc.nextLine().trim();
@@ -51,6 +72,7 @@ public final class Main {
             case "1" -> "mysql";
             case "2" -> "mongodb";
             case "3" -> "postgres";
+            case "4" -> "mongodb-async";
             default -> {
                 logger.warn("Invalid DB choice '{}' — defaulting to MySQL", choice);
                 yield "mysql";
@@ -58,7 +80,7 @@ public final class Main {
         };
     }
 
-    private static Properties loadPropertiesFromEnv() {
+    static Properties loadPropertiesFromEnv() {
         Properties p = new Properties();
 
         // MySQL props
@@ -95,11 +117,72 @@ public final class Main {
         p.setProperty("mongo.collection",
                 System.getenv().getOrDefault("MONGO_COLLECTION", "todos"));
 
+        p.setProperty("mongo.async.maxPoolSize",
+                System.getenv().getOrDefault("MONGO_ASYNC_MAX_POOL_SIZE", "100"));
+
+        p.setProperty("mongo.async.minPoolSize",
+                System.getenv().getOrDefault("MONGO_ASYNC_MIN_POOL_SIZE", "0"));
+
+        p.setProperty("mongo.async.writeConcern",
+                System.getenv().getOrDefault("MONGO_ASYNC_WRITE_CONCERN", "acknowledged"));
+
+        p.setProperty("mongo.async.maxInFlight",
+                System.getenv().getOrDefault("MONGO_ASYNC_MAX_IN_FLIGHT", "8"));
+
+        // Shared storage props
+        p.setProperty("storage.counters",
+                System.getenv().getOrDefault("STORAGE_COUNTERS", "false"));
+
+        p.setProperty("storage.tenant",
+                System.getenv().getOrDefault("TODO_TENANT", ""));
+
+        p.setProperty("purge.chunkSize",
+                System.getenv().getOrDefault("PURGE_CHUNK_SIZE", "500"));
+
+        p.setProperty("purge.maxRowsPerSecond",
+                System.getenv().getOrDefault("PURGE_MAX_ROWS_PER_SECOND", "5000"));
+
+        p.setProperty("purge.archive",
+                System.getenv().getOrDefault("PURGE_ARCHIVE", "true"));
+
+        p.setProperty("purge.intervalSeconds",
+                System.getenv().getOrDefault("PURGE_INTERVAL_SECONDS", "0"));
+
+        p.setProperty("cache.enabled",
+                System.getenv().getOrDefault("CACHE_ENABLED", "false"));
+
+        p.setProperty("cache.transport",
+                System.getenv().getOrDefault("CACHE_TRANSPORT", "auto"));
+
+        p.setProperty("cache.maxEntries",
+                System.getenv().getOrDefault("CACHE_MAX_ENTRIES", "100000"));
+
+        p.setProperty("cache.ttlSeconds",
+                System.getenv().getOrDefault("CACHE_TTL_SECONDS", "300"));
+
+        p.setProperty("cache.flushMillis",
+                System.getenv().getOrDefault("CACHE_FLUSH_MILLIS", "50"));
+
+        p.setProperty("cache.pollMillis",
+                System.getenv().getOrDefault("CACHE_POLL_MILLIS", "200"));
+
+        p.setProperty("snapshot.segments",
+                System.getenv().getOrDefault("SNAPSHOT_SEGMENTS", "4"));
+
+        p.setProperty("snapshot.batchSize",
+                System.getenv().getOrDefault("SNAPSHOT_BATCH_SIZE", "1000"));
+
+        p.setProperty("snapshot.restoreParallelism",
+                System.getenv().getOrDefault("SNAPSHOT_RESTORE_PARALLELISM", "4"));
+
+        p.setProperty("search.enabled",
+                System.getenv().getOrDefault("SEARCH_ENABLED", "true"));
+
         return p;
     }
 
 
-    static void runCli(TodoService service) {
+    static void runCli(TodoService service, CompletedTodoPurger purger) {
         try (Scanner scanner = new Scanner(System.in)) {
             boolean running = true;
 
@@ -142,6 +225,30 @@ public final class Main {
                         logger.info("Executing DELETE command with id: {}", arg);
                         deleteCmd(service, arg);
                     }
+                    case "import" -> {
+                        logger.info("Executing IMPORT command with file: {}", arg);
+                        importCmd(service, arg);
+                    }
+                    case "backup" -> {
+                        logger.info("Executing BACKUP command with dir: {}", arg);
+                        backupCmd(service, arg);
+                    }
+                    case "restore" -> {
+                        logger.info("Executing RESTORE command with dir: {}", arg);
+                        restoreCmd(service, arg);
+                    }
+                    case "search" -> {
+                        logger.info("Executing SEARCH command with query: {}", arg);
+                        searchCmd(service, arg);
+                    }
+                    case "purge" -> {
+                        logger.info("Executing PURGE command.");
+                        purgeCmd(purger);
+                    }
+                    case "stats" -> {
+                        logger.info("Executing STATS command.");
+                        statsCmd(service);
+                    }
                     case "exit" -> {
                         logger.info("Exit command received.");
                         running = false;
@@ -162,6 +269,12 @@ public final class Main {
         logger.info("  list              - List all todos");
         logger.info("  update <id>       - Update a todo");
         logger.info("  delete <id>       - Delete a todo");
+        logger.info("  import <file>     - Bulk import a .csv or .ndjson export");
+        logger.info("  backup <dir>      - Write a binary snapshot of all todos");
+        logger.info("  restore <dir>     - Load todos from a snapshot");
+        logger.info("  search <words>    - Search titles and descriptions");
+        logger.info("  purge             - Archive/delete completed todos");
+        logger.info("  stats             - Show completion statistics");
         logger.info("  exit              - Exit program");
     }
 
@@ -206,6 +319,71 @@ public final class Main {
         list.forEach(todo -> logger.info(todo.toString()));
     }
 
+    private static void importCmd(TodoService service, String file) {
+        if (file.isBlank()) {
+            logger.warn("IMPORT command called without file.");
+            logger.info("Please provide a file: import <file>");
+            return;
+        }
+
+        var result = service.importTodos(Path.of(file));
+        logger.info("Imported {} TODOs ({} rows/s)", result.rows(), Math.round(result.rowsPerSecond()));
+    }
+
+    private static void backupCmd(TodoService service, String dir) {
+        if (dir.isBlank()) {
+            logger.warn("BACKUP command called without dir.");
+            logger.info("Please provide a directory: backup <dir>");
+            return;
+        }
+
+        var result = service.backupTodos(Path.of(dir));
+        logger.info("Backed up {} TODOs ({} bytes, {} rows/s)",
+                result.records(), result.bytes(), Math.round(result.recordsPerSecond()));
+    }
+
+    private static void restoreCmd(TodoService service, String dir) {
+        if (dir.isBlank()) {
+            logger.warn("RESTORE command called without dir.");
+            logger.info("Please provide a directory: restore <dir>");
+            return;
+        }
+
+        var result = service.restoreTodos(Path.of(dir));
+        logger.info("Restored {} TODOs ({} rows/s)", result.records(), Math.round(result.recordsPerSecond()));
+    }
+
+    private static void searchCmd(TodoService service, String query) {
+        if (query.isBlank()) {
+            logger.warn("SEARCH command called without query.");
+            logger.info("Please provide words: search <words>");
+            return;
+        }
+
+        var hits = service.searchTodos(query, 10);
+
+        if (hits.isEmpty()) {
+            logger.info("No TODOs match '{}'.", query);
+            return;
+        }
+
+        hits.forEach(hit -> logger.info("{}  {}  (score {})", hit.id(), hit.title(), String.format("%.2f", hit.score())));
+    }
+
+    private static void purgeCmd(CompletedTodoPurger purger) {
+        long purged = purger.runOnce();
+        var stats = purger.stats();
+
+        logger.info("Purged {} completed TODOs ({} total over {} runs)", purged, stats.rowsPurged(), stats.runs());
+    }
+
+    private static void statsCmd(TodoService service) {
+        var stats = service.getStats();
+
+        logger.info("Total: {}, completed: {}, open: {}", stats.total(), stats.completed(), stats.open());
+        logger.info("Completion ratio: {}%", String.format("%.1f", stats.completionRatio() * 100));
+    }
+
     private static void updateTodoInteractive(TodoService service, Scanner scanner, String id) {
         if (id.isBlank()) {
             logger.warn("UPDATE command called without ID.");
@@ -0,0 +1,128 @@
+package com.example.app;
+
+import com.example.model.Todo;
+import com.example.storage.mongo.MongoAsyncOptions;
+import com.example.storage.mongo.MongoAsyncTodoStorage;
+import com.example.storage.mongo.MongoTodoStorage;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the sync and async Mongo storages on insert and point-read
+ * throughput from a single caller thread. The async run keeps up to
+ * {@code bench.window} operations in flight.
+ * <p>
+ * Usage: {@code -Dbench.ops=10000 -Dbench.window=64}; connection settings
+ * come from the same environment variables as {@link Main}, so point
+ * {@code MONGO_CONN} at a local mongod for numbers that mean anything.
+ */
+public final class MongoBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoBenchmark.class);
+
+    private static final String SYNC_COLLECTION = "bench_sync";
+    private static final String ASYNC_COLLECTION = "bench_async";
+    private static final List<String> COLLECTIONS = List.of(SYNC_COLLECTION, ASYNC_COLLECTION);
+
+    /**
+     * One measured phase; {@code failures} counts operations that completed exceptionally.
+     */
+    public record Result(String name, int ops, int failures, long elapsedNanos) {
+
+        public double opsPerSecond() {
+            return ops / (elapsedNanos / 1e9);
+        }
+    }
+
+    private MongoBenchmark() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        Properties props = Main.loadPropertiesFromEnv();
+        int ops = Integer.getInteger("bench.ops", 10_000);
+        int window = Integer.getInteger("bench.window", 64);
+
+        for (Result r : run(props.getProperty("mongo.connectionString"), props.getProperty("mongo.database"),
+                MongoAsyncOptions.fromProperties(props), ops, window)) {
+            logger.info("{}: {} ops in {} s ({} ops/s, {} failed)", r.name(), r.ops(),
+                    String.format("%.2f", r.elapsedNanos() / 1e9), Math.round(r.opsPerSecond()), r.failures());
+        }
+    }
+
+    public static List<Result> run(String conn, String db, MongoAsyncOptions options, int ops, int window)
+            throws InterruptedException {
+        List<Result> results = new ArrayList<>(4);
+
+        // Start from, and leave behind, empty collections so runs don't measure each other's data
+        dropCollections(conn, db);
+        try (MongoTodoStorage sync = new MongoTodoStorage(conn, db, SYNC_COLLECTION);
+             MongoAsyncTodoStorage async = new MongoAsyncTodoStorage(conn, db, ASYNC_COLLECTION, options)) {
+            List<String> ids = new ArrayList<>(ops);
+            long start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                Todo t = new Todo(null, "bench " + i, "sync", false);
+                sync.save(t);
+                ids.add(t.getId());
+            }
+            results.add(new Result("sync insert", ops, 0, System.nanoTime() - start));
+
+            start = System.nanoTime();
+            for (String id : ids) sync.retrieve(id);
+            results.add(new Result("sync read", ops, 0, System.nanoTime() - start));
+
+            List<String> asyncIds = new ArrayList<>(ops);
+            Semaphore inFlight = new Semaphore(window);
+            AtomicInteger failures = new AtomicInteger();
+            start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                inFlight.acquire();
+                async.saveAsync(new Todo(null, "bench " + i, "async", false))
+                        .whenComplete((t, e) -> {
+                            if (t != null) {
+                                synchronized (asyncIds) {
+                                    asyncIds.add(t.getId());
+                                }
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                            inFlight.release();
+                        });
+            }
+            inFlight.acquire(window);
+            inFlight.release(window);
+            results.add(new Result("async insert", ops, failures.getAndSet(0), System.nanoTime() - start));
+
+            start = System.nanoTime();
+            for (String id : asyncIds) {
+                inFlight.acquire();
+                async.retrieveAsync(id).whenComplete((t, e) -> {
+                    if (e != null || t.isEmpty()) failures.incrementAndGet();
+                    inFlight.release();
+                });
+            }
+            inFlight.acquire(window);
+            results.add(new Result("async read", asyncIds.size(), failures.get(), System.nanoTime() - start));
+        } finally {
+            dropCollections(conn, db);
+        }
+
+        return results;
+    }
+
+    private static void dropCollections(String conn, String db) {
+        try (MongoClient client = MongoClients.create(conn)) {
+            MongoDatabase database = client.getDatabase(db);
+            for (String name : database.listCollectionNames().into(new ArrayList<>())) {
+                if (COLLECTIONS.contains(name)) database.getCollection(name).drop();
+            }
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.example.factory;
 
+import com.example.storage.CountingTodoStorage;
 import com.example.storage.TodoStorage;
 import com.example.storage.StorageException;
+import com.example.storage.cache.CacheOptions;
+import com.example.storage.cache.CachingTodoStorage;
+import com.example.storage.cache.InvalidationTransport;
+import com.example.storage.cache.JdbcChangeTableTransport;
+import com.example.storage.cache.LoopbackInvalidationTransport;
+import com.example.storage.cache.MongoChangeCollectionTransport;
+import com.example.storage.cache.PostgresNotifyTransport;
 import com.example.storage.mysql.MySqlTodoStorage;
+import com.example.storage.memory.InMemoryTodoStorage;
+import com.example.storage.mongo.MongoAsyncOptions;
+import com.example.storage.mongo.MongoAsyncTodoStorage;
 import com.example.storage.mongo.MongoTodoStorage;
 import com.example.storage.postgres.PostgresTodoStorage;
 import org.slf4j.Logger;
@@ -19,6 +30,69 @@ public final class StorageFactory {
     public static TodoStorage create(String type, Properties props) {
         logger.info("Creating storage of type: {}", type);
 
+        TodoStorage storage = createBackend(type, props);
+
+        if (Boolean.parseBoolean(props.getProperty("cache.enabled", "false"))) {
+            CacheOptions options = CacheOptions.fromProperties(props);
+            storage = new CachingTodoStorage(storage, createTransport(type, props, options), options);
+        }
+
+        String tenant = props.getProperty("storage.tenant", "");
+        if (!tenant.isBlank()) {
+            logger.info("Scoping storage to tenant: {}", tenant);
+            storage = storage.forTenant(tenant);
+        }
+
+        if (Boolean.parseBoolean(props.getProperty("storage.counters", "false"))) {
+            logger.info("Enabling in-process todo counters");
+            storage = new CountingTodoStorage(storage);
+        }
+
+        return storage;
+    }
+
+    /**
+     * Picks the invalidation transport for a near-cache. {@code auto} uses
+     * LISTEN/NOTIFY on Postgres, a polling change table/collection on the
+     * other shared backends and an in-process loopback for memory storage.
+     */
+    private static InvalidationTransport createTransport(String type, Properties props, CacheOptions options) {
+        String backend = type.toLowerCase();
+        String transport = props.getProperty("cache.transport", "auto").toLowerCase();
+        if (transport.equals("auto")) {
+            transport = switch (backend) {
+                case "postgres", "postgresql" -> "notify";
+                case "mysql", "h2" -> "table";
+                case "mongodb", "mongo", "mongodb-async", "mongo-async" -> "collection";
+                default -> "loopback";
+            };
+        }
+        logger.info("Enabling near-cache with {} invalidation transport", transport);
+
+        String prefix = switch (backend) {
+            case "postgresql" -> "postgres";
+            case "mongodb", "mongodb-async", "mongo-async" -> "mongo";
+            default -> backend;
+        };
+        String url  = props.getProperty(prefix + ".jdbcUrl",
+                backend.equals("h2") ? "jdbc:h2:mem:todos;DB_CLOSE_DELAY=-1" : null);
+        String user = props.getProperty(prefix + ".user", backend.equals("h2") ? "sa" : null);
+        String pass = props.getProperty(prefix + ".password", backend.equals("h2") ? "" : null);
+
+        return switch (transport) {
+            case "notify" -> new PostgresNotifyTransport(url, user, pass, options.pollIntervalMillis());
+            case "table" -> new JdbcChangeTableTransport(url, user, pass, options.pollIntervalMillis());
+            case "collection" -> new MongoChangeCollectionTransport(
+                    props.getProperty("mongo.connectionString"),
+                    props.getProperty("mongo.database"),
+                    props.getProperty("mongo.collection"),
+                    options.pollIntervalMillis());
+            case "loopback" -> new LoopbackInvalidationTransport();
+            default -> throw new StorageException("Unknown cache transport: " + transport);
+        };
+    }
+
+    private static TodoStorage createBackend(String type, Properties props) {
         return switch (type.toLowerCase()) {
 
             case "mysql" -> {
@@ -35,6 +109,13 @@ public final class StorageFactory {
                 yield new MongoTodoStorage(conn, db, col);
             }
 
+            case "mongodb-async", "mongo-async" -> {
+                String conn = props.getProperty("mongo.connectionString");
+                String db   = props.getProperty("mongo.database");
+                String col  = props.getProperty("mongo.collection");
+                yield new MongoAsyncTodoStorage(conn, db, col, MongoAsyncOptions.fromProperties(props));
+            }
+
             case "postgres", "postgresql" -> {
                 String url  = props.getProperty("postgres.jdbcUrl");
                 String user = props.getProperty("postgres.user");
@@ -42,6 +123,15 @@ public final class StorageFactory {
                 yield new PostgresTodoStorage(url, user, pass);
             }
 
+            case "h2" -> {
+                String url  = props.getProperty("h2.jdbcUrl", "jdbc:h2:mem:todos;DB_CLOSE_DELAY=-1");
+                String user = props.getProperty("h2.user", "sa");
+                String pass = props.getProperty("h2.password", "");
+                yield new MySqlTodoStorage(url, user, pass);
+            }
+
+            case "memory" -> new InMemoryTodoStorage();
+
             default -> throw new StorageException("Unknown storage type: " + type);
         };
     }
@@ -0,0 +1,16 @@
+package com.example.loadtest;
+
+import java.util.Locale;
+
+public enum KeyDistribution {
+    /** Every existing key equally likely. */
+    UNIFORM,
+    /** A few keys are hot; popularity follows a Zipf law, hot keys scattered over the key space. */
+    ZIPFIAN,
+    /** Most recently inserted keys are hottest. */
+    LATEST;
+
+    public static KeyDistribution parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
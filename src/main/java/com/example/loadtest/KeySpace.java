@@ -0,0 +1,101 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids known to the load generator, in insertion order. Deleted ids leave a
+ * hole so the positions used by the key distributions stay stable.
+ */
+final class KeySpace {
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final int MAX_REDRAWS = 64;
+
+    private final KeyDistribution distribution;
+    private final ZipfianGenerator zipf;
+    private final long itemSpace;
+
+    private volatile String[] ids;
+    private volatile int size;
+
+    /**
+     * @param itemSpace fixed number of positions zipfian ranks are hashed
+     *                  into; should cover the preloaded records plus the
+     *                  inserts expected during the run
+     */
+    KeySpace(KeyDistribution distribution, int records, long itemSpace) {
+        this.distribution = distribution;
+        this.itemSpace = Math.max(1, itemSpace);
+        this.zipf = distribution == KeyDistribution.UNIFORM ? null : new ZipfianGenerator(this.itemSpace);
+        this.ids = new String[Math.max(16, records)];
+    }
+
+    synchronized void add(String id) {
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        ids[size] = id;
+        size++;
+    }
+
+    /**
+     * Returns a live id picked according to the distribution, or {@code null}
+     * if none was found within a few attempts.
+     */
+    String choose() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int n = size;
+            String[] snapshot = ids;
+            if (n == 0) return null;
+
+            String id = snapshot[index(n)];
+            if (id != null) return id;
+        }
+        return null;
+    }
+
+    /**
+     * Like {@link #choose()} but also removes the id so it isn't picked again.
+     */
+    synchronized String take() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && size > 0; attempt++) {
+            int i = index(size);
+            String id = ids[i];
+            if (id != null) {
+                ids[i] = null;
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private int index(int n) {
+        return switch (distribution) {
+            case UNIFORM -> ThreadLocalRandom.current().nextInt(n);
+            case ZIPFIAN -> zipfianIndex(n);
+            case LATEST -> (int) Math.max(0, n - 1 - zipf.nextRank() % n);
+        };
+    }
+
+    /**
+     * Hashes a rank into the fixed item space and redraws positions not
+     * inserted yet, as YCSB does. Taking the modulus over the current size
+     * instead would move every hot key on each insert and flatten the skew.
+     */
+    int zipfianIndex(int n) {
+        for (int i = 0; i < MAX_REDRAWS; i++) {
+            long index = scramble(zipf.nextRank()) % itemSpace;
+            if (index < n) return (int) index;
+        }
+        return ThreadLocalRandom.current().nextInt(n);
+    }
+
+    /** FNV-1a over the rank, so hot keys are spread across the key space. */
+    private static long scramble(long rank) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < 8; i++) {
+            hash ^= (rank >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash & Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.loadtest;
+
+import com.example.model.Todo;
+import com.example.service.TodoService;
+import com.example.storage.TodoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * YCSB-style workload driver for {@link TodoService}: preloads records,
+ * then runs the configured operation mix from a pool of workers, reporting
+ * per-operation throughput and latency percentiles every interval and once
+ * more for the whole measured run.
+ * <p>
+ * When a target throughput is set, each operation's latency is measured
+ * from its scheduled start rather than its actual start, so a stalled
+ * backend shows up in the percentiles instead of silently lowering the
+ * offered load.
+ */
+public final class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int PRELOAD_BATCH = 1000;
+
+    private final LoadTestConfig config;
+    private final TodoService service;
+    private final KeySpace keys;
+    private final Operation[] ops;
+    private final int[] cumulativeWeights;
+
+    private final Map<Operation, LatencyHistogram> interval = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyHistogram> total = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    public LoadTest(LoadTestConfig config, TodoService service) {
+        this.config = config;
+        this.service = service;
+        this.keys = new KeySpace(config.distribution(), config.records(), config.keySpace());
+
+        List<Operation> enabled = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int sum = 0;
+        for (Operation op : Operation.values()) {
+            int w = config.mix().getOrDefault(op, 0);
+            if (w > 0) {
+                sum += w;
+                enabled.add(op);
+                weights.add(sum);
+            }
+            interval.put(op, new LatencyHistogram());
+            total.put(op, new LatencyHistogram());
+            errors.put(op, new AtomicLong());
+        }
+        this.ops = enabled.toArray(new Operation[0]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public void run(TodoStorage storage) throws InterruptedException {
+        logger.info("Load test: {}", config);
+        preload(storage);
+
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long start = System.nanoTime();
+        long warmupEnd = start + warmupNanos;
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+
+        ExecutorService workers = config.virtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.threads());
+        long intervalNanos = config.targetOpsPerSec() > 0
+                ? TimeUnit.SECONDS.toNanos(1) * config.threads() / config.targetOpsPerSec()
+                : 0;
+
+        for (int i = 0; i < config.threads(); i++) {
+            // Stagger throttled workers so they don't fire in lockstep
+            long first = start + (intervalNanos == 0 ? 0 : intervalNanos * i / config.threads());
+            workers.execute(() -> work(first, intervalNanos, end));
+        }
+        workers.shutdown();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long reportNanos = TimeUnit.SECONDS.toNanos(config.reportSeconds());
+        reporter.scheduleAtFixedRate(() -> {
+            report("interval", interval, reportNanos);
+            interval.values().forEach(LatencyHistogram::reset);
+        }, reportNanos, reportNanos, TimeUnit.NANOSECONDS);
+
+        if (warmupNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(warmupNanos);
+            total.values().forEach(LatencyHistogram::reset);
+            errors.values().forEach(e -> e.set(0));
+            logger.info("Warm-up finished, measuring for {} s", config.durationSeconds());
+        }
+
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        reporter.shutdownNow();
+
+        long measured = System.nanoTime() - Math.min(warmupEnd, System.nanoTime());
+        report("total", total, measured);
+    }
+
+    private void preload(TodoStorage storage) {
+        long start = System.nanoTime();
+        List<Todo> batch = new ArrayList<>(PRELOAD_BATCH);
+
+        for (int i = 0; i < config.records(); i++) {
+            batch.add(newTodo(i));
+            if (batch.size() == PRELOAD_BATCH || i == config.records() - 1) {
+                storage.saveAll(batch);
+                batch.forEach(t -> keys.add(t.getId()));
+                batch = new ArrayList<>(PRELOAD_BATCH);
+            }
+        }
+
+        logger.info("Preloaded {} todos in {} ms", config.records(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void work(long first, long intervalNanos, long end) {
+        long scheduled = first;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (scheduled >= end) return;
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+            } else if (now >= end) {
+                return;
+            }
+
+            Operation op = pick();
+            long startedAt = intervalNanos > 0 ? scheduled : System.nanoTime();
+            try {
+                execute(op);
+            } catch (RuntimeException e) {
+                errors.get(op).incrementAndGet();
+            }
+            long micros = (System.nanoTime() - startedAt) / 1_000;
+            interval.get(op).record(micros);
+            total.get(op).record(micros);
+
+            scheduled += intervalNanos;
+        }
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < ops.length; i++) {
+            if (r < cumulativeWeights[i]) return ops[i];
+        }
+        return ops[ops.length - 1];
+    }
+
+    private void execute(Operation op) {
+        switch (op) {
+            case READ -> {
+                String id = keys.choose();
+                if (id != null) service.getTodo(id);
+            }
+            case INSERT -> {
+                Todo todo = newTodo(ThreadLocalRandom.current().nextInt());
+                service.addTodo(todo);
+                keys.add(todo.getId());
+            }
+            case UPDATE -> {
+                String id = keys.choose();
+                if (id != null) {
+                    service.updateTodo(new Todo(id, "updated " + id, "load test update",
+                            ThreadLocalRandom.current().nextBoolean()));
+                }
+            }
+            case DELETE -> {
+                String id = keys.take();
+                if (id != null) service.deleteTodo(id);
+            }
+            case LIST -> service.getAllTodos();
+        }
+    }
+
+    private void report(String label, Map<Operation, LatencyHistogram> histograms, long elapsedNanos) {
+        double seconds = Math.max(1e-9, elapsedNanos / 1e9);
+        for (Operation op : ops) {
+            LatencyHistogram h = histograms.get(op);
+            logger.info("[{}] {} ops={} ({} ops/s) mean={}us p50={}us p95={}us p99={}us p999={}us max={}us errors={}",
+                    label, op, h.count(), Math.round(h.count() / seconds), Math.round(h.mean()),
+                    h.percentile(50), h.percentile(95), h.percentile(99), h.percentile(99.9),
+                    h.max(), errors.get(op).get());
+        }
+    }
+
+    private static Todo newTodo(int n) {
+        return new Todo(null, "load test todo " + n, "generated by LoadTest", n % 4 == 0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for a {@link LoadTest} run, read from {@code loadtest.*} properties.
+ *
+ * @param storageType      any {@link com.example.factory.StorageFactory} type
+ * @param records          todos inserted before the run starts
+ * @param keySpace         ids the zipfian distribution hashes into, covering the preload
+ *                         plus expected inserts; ids inserted beyond it are never hot
+ * @param mix              relative weight of each operation
+ * @param distribution     how keys are picked for read/update/delete
+ * @param targetOpsPerSec  overall throughput cap, 0 for unthrottled
+ * @param threads          concurrent workers
+ * @param virtualThreads   run workers on virtual threads
+ * @param warmupSeconds    run time excluded from the final summary
+ * @param durationSeconds  measured run time after warm-up
+ * @param reportSeconds    interval between progress reports
+ */
+public record LoadTestConfig(
+        String storageType,
+        int records,
+        long keySpace,
+        Map<Operation, Integer> mix,
+        KeyDistribution distribution,
+        int targetOpsPerSec,
+        int threads,
+        boolean virtualThreads,
+        int warmupSeconds,
+        int durationSeconds,
+        int reportSeconds) {
+
+    public static final String DEFAULT_MIX = "read=50,insert=20,update=20,delete=5,list=5";
+
+    public static LoadTestConfig fromProperties(Properties p) {
+        int records = Integer.parseInt(p.getProperty("loadtest.records", "10000"));
+        return new LoadTestConfig(
+                p.getProperty("loadtest.storage", "memory"),
+                records,
+                Long.parseLong(p.getProperty("loadtest.keySpace", String.valueOf(2L * records))),
+                parseMix(p.getProperty("loadtest.mix", DEFAULT_MIX)),
+                KeyDistribution.parse(p.getProperty("loadtest.distribution", "zipfian")),
+                Integer.parseInt(p.getProperty("loadtest.targetOps", "0")),
+                Integer.parseInt(p.getProperty("loadtest.threads", "8")),
+                Boolean.parseBoolean(p.getProperty("loadtest.virtualThreads", "false")),
+                Integer.parseInt(p.getProperty("loadtest.warmup", "5")),
+                Integer.parseInt(p.getProperty("loadtest.duration", "30")),
+                Integer.parseInt(p.getProperty("loadtest.reportInterval", "5")));
+    }
+
+    /**
+     * Parses {@code op=weight} pairs, e.g. {@code read=95,update=5}. Unlisted operations get weight 0.
+     */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) continue;
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix has no positive weights: " + spec);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.loadtest;
+
+public enum Operation {
+    READ,
+    INSERT,
+    UPDATE,
+    DELETE,
+    LIST
+}
@@ -0,0 +1,49 @@
+package com.example.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf-distributed ranks in {@code [0, items)}, using the closed-form
+ * method from Gray et al., "Quickly Generating Billion-Record Synthetic
+ * Databases" (the same one YCSB uses). Rank 0 is the most popular.
+ */
+final class ZipfianGenerator {
+
+    static final double DEFAULT_THETA = 0.99;
+
+    private final long items;
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+
+    ZipfianGenerator(long items) {
+        this(items, DEFAULT_THETA);
+    }
+
+    ZipfianGenerator(long items, double theta) {
+        this.items = Math.max(1, items);
+        this.theta = theta;
+        this.zetan = zeta(this.items, theta);
+        double zeta2 = zeta(2, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / this.items, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    long nextRank() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetan;
+
+        if (uz < 1.0) return 0;
+        if (uz < 1.0 + Math.pow(0.5, theta)) return Math.min(1, items - 1);
+
+        long rank = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) sum += 1 / Math.pow(i, theta);
+        return sum;
+    }
+}
@@ -5,23 +5,31 @@ public final class Todo {
     private String title;
     private String description;
     private boolean completed;
+    private String owner;
 
     public Todo(String id, String title, String description, boolean completed) {
+        this(id, title, description, completed, null);
+    }
+
+    public Todo(String id, String title, String description, boolean completed, String owner) {
         this.id = id;
         this.title = title;
         this.description = description;
         this.completed = completed;
+        this.owner = owner;
     }
 
     public String getId() { return id; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
     public boolean isCompleted() { return completed; }
+    public String getOwner() { return owner; }
 
     public void setTitle(String title) { this.title = title; }
     public void setDescription(String description) { this.description = description; }
     public void setCompleted(boolean completed) { this.completed = completed; }
     public void setId(String id) { this.id = id; }
+    public void setOwner(String owner) { this.owner = owner; }
 
 
     @Override
@@ -31,6 +39,7 @@ public final class Todo {
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", completed=" + completed +
+                ", owner='" + owner + '\'' +
                 '}';
     }
 }
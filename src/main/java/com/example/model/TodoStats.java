@@ -0,0 +1,10 @@
+package com.example.model;
+
+public record TodoStats(long total, long completed) {
+
+    public long open() { return total - completed; }
+
+    public double completionRatio() {
+        return total == 0 ? 0.0 : (double) completed / total;
+    }
+}
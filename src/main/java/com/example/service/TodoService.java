@@ -1,25 +1,50 @@
 package com.example.service;
 
 import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.service.search.SearchHit;
+import com.example.service.search.TodoSearchIndex;
 import com.example.storage.StorageException;
 import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.snapshot.SnapshotOptions;
+import com.example.storage.snapshot.SnapshotReader;
+import com.example.storage.snapshot.SnapshotResult;
+import com.example.storage.snapshot.SnapshotWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public final class TodoService {
     private static final Logger logger = LoggerFactory.getLogger(TodoService.class);
     private final TodoStorage storage;
+    private final TodoSearchIndex searchIndex;
+    private final SnapshotOptions snapshotOptions;
 
     public TodoService(TodoStorage storage) {
+        this(storage, null);
+    }
+
+    public TodoService(TodoStorage storage, TodoSearchIndex searchIndex) {
+        this(storage, searchIndex, SnapshotOptions.DEFAULTS);
+    }
+
+    public TodoService(TodoStorage storage, TodoSearchIndex searchIndex, SnapshotOptions snapshotOptions) {
         this.storage = storage;
+        this.searchIndex = searchIndex;
+        this.snapshotOptions = snapshotOptions;
     }
 
     public void addTodo(Todo todo) {
         try {
             storage.save(todo);
+            if (searchIndex != null) searchIndex.index(todo);
             logger.info("Added todo {}", todo.getId());
         } catch (StorageException e) {
             logger.error("Failed to add todo {}", todo.getId(), e);
@@ -45,9 +70,98 @@ public final class TodoService {
         }
     }
 
+    public BulkImportResult importTodos(Path file) {
+        try (TodoRecordReader reader = TodoRecordReader.open(file)) {
+            BulkImportResult result = storage.bulkImport(reader);
+            logger.info("Imported {} todos from {} in {} ms ({} rows/s)",
+                    result.rows(), file, result.elapsedMillis(), Math.round(result.rowsPerSecond()));
+
+            if (searchIndex != null) searchIndex.rebuild(storage);
+            return result;
+        } catch (StorageException e) {
+            logger.error("Failed to import todos from {}", file, e);
+            throw new TodoServiceException("Failed to import todos from " + file, e);
+        }
+    }
+
+    public SnapshotResult backupTodos(Path dir) {
+        try {
+            return new SnapshotWriter(snapshotOptions).write(storage, dir);
+        } catch (StorageException e) {
+            logger.error("Failed to back up todos to {}", dir, e);
+            throw new TodoServiceException("Failed to back up todos to " + dir, e);
+        }
+    }
+
+    public SnapshotResult restoreTodos(Path dir) {
+        try {
+            SnapshotResult result = new SnapshotReader(snapshotOptions).restore(dir, storage);
+
+            if (searchIndex != null) searchIndex.rebuild(storage);
+            return result;
+        } catch (StorageException e) {
+            logger.error("Failed to restore todos from {}", dir, e);
+            throw new TodoServiceException("Failed to restore todos from " + dir, e);
+        }
+    }
+
+    /**
+     * Removes one chunk of completed todos; see {@link TodoStorage#purgeCompleted}.
+     */
+    public List<String> purgeCompleted(int limit, boolean archive) {
+        try {
+            List<String> ids = storage.purgeCompleted(limit, archive);
+            if (searchIndex != null) ids.forEach(searchIndex::remove);
+            return ids;
+        } catch (StorageException e) {
+            logger.error("Failed to purge completed todos", e);
+            throw new TodoServiceException("Failed to purge completed todos", e);
+        }
+    }
+
+    public long countTodos() {
+        try {
+            return storage.count();
+        } catch (StorageException e) {
+            logger.error("Failed to count todos", e);
+            throw new TodoServiceException("Failed to count todos", e);
+        }
+    }
+
+    public long countTodos(boolean completed) {
+        try {
+            return storage.countByCompleted(completed);
+        } catch (StorageException e) {
+            logger.error("Failed to count todos with completed={}", completed, e);
+            throw new TodoServiceException("Failed to count todos with completed=" + completed, e);
+        }
+    }
+
+    public TodoStats getStats() {
+        try {
+            return storage.stats();
+        } catch (StorageException e) {
+            logger.error("Failed to compute todo stats", e);
+            throw new TodoServiceException("Failed to compute todo stats", e);
+        }
+    }
+
+    /**
+     * Streams every todo using a partitioned parallel scan. The caller must close the stream.
+     */
+    public Stream<Todo> scanAllTodos(ParallelScanOptions options) {
+        try {
+            return storage.parallelScan(options);
+        } catch (StorageException e) {
+            logger.error("Failed to start parallel scan", e);
+            throw new TodoServiceException("Failed to start parallel scan", e);
+        }
+    }
+
     public void updateTodo(Todo todo) {
         try {
             storage.update(todo);
+            if (searchIndex != null) searchIndex.index(todo);
             logger.info("Updated todo {}", todo.getId());
         } catch (StorageException e) {
             logger.error("Failed to update todo {}", todo.getId(), e);
@@ -58,10 +172,32 @@ public final class TodoService {
     public void deleteTodo(String id) {
         try {
             storage.delete(id);
+            if (searchIndex != null) searchIndex.remove(id);
             logger.info("Deleted todo {}", id);
         } catch (StorageException e) {
             logger.error("Failed to delete todo {}", id, e);
             throw new TodoServiceException("Failed to delete todo " + id, e);
         }
     }
+
+    public void rebuildSearchIndex() {
+        requireSearchIndex();
+        try {
+            searchIndex.rebuild(storage);
+        } catch (StorageException e) {
+            logger.error("Failed to rebuild search index", e);
+            throw new TodoServiceException("Failed to rebuild search index", e);
+        }
+    }
+
+    public List<SearchHit> searchTodos(String query, int limit) {
+        requireSearchIndex();
+        return searchIndex.search(query, limit);
+    }
+
+    private void requireSearchIndex() {
+        if (searchIndex == null) {
+            throw new TodoServiceException("Search is not enabled for this service");
+        }
+    }
 }
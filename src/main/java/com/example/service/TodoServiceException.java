@@ -2,6 +2,10 @@ package com.example.service;
 
 public class TodoServiceException extends RuntimeException {
 
+    public TodoServiceException(String message) {
+        super(message);
+    }
+
     public TodoServiceException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -0,0 +1,140 @@
+package com.example.service.purge;
+
+import com.example.service.TodoService;
+import com.example.service.TodoServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes completed todos in bounded chunks, optionally archiving them.
+ * <p>
+ * Each chunk is its own short transaction, and chunks are paced to stay
+ * under {@link PurgeOptions#maxRowsPerSecond()}, so a large backlog is
+ * drained gradually instead of in one long lock-holding statement that
+ * stalls writers and replicas. Runs can be triggered on demand or on a
+ * fixed schedule; only one run is active at a time.
+ */
+public final class CompletedTodoPurger implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompletedTodoPurger.class);
+
+    private final TodoService service;
+    private final PurgeOptions options;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong rowsPurged = new AtomicLong();
+    private final AtomicLong currentRun = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private volatile Instant lastRunAt;
+    private volatile String lastError;
+
+    private ScheduledExecutorService scheduler;
+
+    public CompletedTodoPurger(TodoService service, PurgeOptions options) {
+        this.service = service;
+        this.options = options;
+    }
+
+    /**
+     * Purges chunk by chunk until one comes back empty; a short chunk only
+     * means some rows were locked or changed. Returns the number removed, or
+     * 0 without doing anything if another run is already in progress.
+     */
+    public long runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Purge already running, skipping");
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        currentRun.set(0);
+        try {
+            long purged = 0;
+            while (true) {
+                List<String> ids = service.purgeCompleted(options.chunkSize(), options.archive());
+                if (ids.isEmpty()) break;
+
+                purged += ids.size();
+                currentRun.set(purged);
+                rowsPurged.addAndGet(ids.size());
+                chunks.incrementAndGet();
+                logger.debug("Purged chunk of {} ({} this run)", ids.size(), purged);
+
+                throttle(purged, start);
+            }
+
+            lastError = null;
+            logger.info("Purge finished: {} completed todos {} in {} ms", purged,
+                    options.archive() ? "archived" : "deleted", (System.nanoTime() - start) / 1_000_000);
+            return purged;
+
+        } catch (TodoServiceException e) {
+            lastError = e.getMessage();
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastError = "interrupted";
+            logger.info("Purge interrupted after {} todos", currentRun.get());
+            return currentRun.get();
+        } finally {
+            runs.incrementAndGet();
+            lastRunMillis.set((System.nanoTime() - start) / 1_000_000);
+            lastRunAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Runs {@link #runOnce()} in the background every {@code intervalSeconds},
+     * measured from the end of the previous run.
+     */
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "todo-purger");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (RuntimeException e) {
+                logger.error("Scheduled purge failed", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        logger.info("Scheduled purge of completed todos every {} s", intervalSeconds);
+    }
+
+    public PurgeStats stats() {
+        return new PurgeStats(running.get(), runs.get(), chunks.get(), rowsPurged.get(),
+                currentRun.get(), lastRunMillis.get(), lastRunAt, lastError);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void throttle(long purged, long startNanos) throws InterruptedException {
+        if (options.maxRowsPerSecond() == 0) return;
+
+        long earliest = startNanos + purged * 1_000_000_000L / options.maxRowsPerSecond();
+        long wait = earliest - System.nanoTime();
+        if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.service.purge;
+
+import java.util.Properties;
+
+/**
+ * @param chunkSize        completed todos removed per transaction
+ * @param maxRowsPerSecond throttle across chunks, 0 for no limit
+ * @param archive          copy todos to the archive before deleting them
+ */
+public record PurgeOptions(int chunkSize, int maxRowsPerSecond, boolean archive) {
+
+    public PurgeOptions {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be >= 1");
+        if (maxRowsPerSecond < 0) throw new IllegalArgumentException("maxRowsPerSecond must be >= 0");
+    }
+
+    public static PurgeOptions fromProperties(Properties props) {
+        return new PurgeOptions(
+                Integer.parseInt(props.getProperty("purge.chunkSize", "500")),
+                Integer.parseInt(props.getProperty("purge.maxRowsPerSecond", "5000")),
+                Boolean.parseBoolean(props.getProperty("purge.archive", "true")));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.service.purge;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a {@link CompletedTodoPurger}'s progress.
+ *
+ * @param running       a purge run is in progress
+ * @param runs          runs finished since start-up
+ * @param chunks        chunks committed since start-up
+ * @param rowsPurged    todos removed since start-up
+ * @param currentRun    todos removed so far by the run in progress (or the last run)
+ * @param lastRunMillis duration of the last finished run
+ * @param lastRunAt     when the last run finished, or {@code null}
+ * @param lastError     message of the last failed run, or {@code null}
+ */
+public record PurgeStats(boolean running, long runs, long chunks, long rowsPurged,
+                         long currentRun, long lastRunMillis, Instant lastRunAt, String lastError) {}
@@ -0,0 +1,84 @@
+package com.example.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only postings list for one term. Documents are appended in
+ * increasing ordinal order, so the list is always sorted.
+ */
+final class Postings {
+
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+    private int maxFreq;
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+        maxFreq = Math.max(maxFreq, freq);
+    }
+
+    int size() { return size; }
+    int doc(int i) { return docs[i]; }
+    int freq(int i) { return freqs[i]; }
+
+    /**
+     * Highest frequency in the list, tombstoned documents included, so it
+     * only ever over-estimates; used to bound the term's score.
+     */
+    int maxFreq() { return maxFreq; }
+
+    /**
+     * Returns the first position at or after {@code from} whose document is
+     * at least {@code target}, or {@link #size()} if there is none. Gallops
+     * then binary-searches, so short skips stay cheap.
+     */
+    int seek(int from, int target) {
+        if (from >= size || docs[from] >= target) return from;
+
+        int step = 1;
+        int lo = from;
+        int hi = from + 1;
+        while (hi < size && docs[hi] < target) {
+            lo = hi;
+            step <<= 1;
+            hi = from + step;
+        }
+        hi = Math.min(hi, size);
+
+        // docs[lo] < target; answer is in (lo, hi]
+        while (lo + 1 < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (docs[mid] < target) lo = mid; else hi = mid;
+        }
+        return hi;
+    }
+
+    /**
+     * Drops postings for documents whose remapped ordinal is negative and
+     * renumbers the rest. The remap must preserve order.
+     */
+    void compact(int[] remap) {
+        int n = 0;
+        maxFreq = 0;
+        for (int i = 0; i < size; i++) {
+            int to = remap[docs[i]];
+            if (to >= 0) {
+                docs[n] = to;
+                freqs[n] = freqs[i];
+                maxFreq = Math.max(maxFreq, freqs[i]);
+                n++;
+            }
+        }
+        size = n;
+        int capacity = Math.max(4, n);
+        docs = Arrays.copyOf(docs, capacity);
+        freqs = Arrays.copyOf(freqs, capacity);
+    }
+}
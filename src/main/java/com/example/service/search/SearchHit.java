@@ -0,0 +1,3 @@
+package com.example.service.search;
+
+public record SearchHit(String id, String title, double score) {}
@@ -0,0 +1,358 @@
+package com.example.service.search;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over todo titles and descriptions.
+ * <p>
+ * Every indexed document gets an increasing int ordinal, so postings stay
+ * sorted without re-sorting and queries can walk them document-at-a-time.
+ * Updates and deletes only tombstone the old ordinal; once tombstones
+ * outnumber live documents the index is compacted and renumbered.
+ * Results are ranked with BM25, with title terms counted twice; queries use
+ * MaxScore pruning, so once the top hits are good enough, documents that
+ * only contain the common query terms are skipped rather than scored.
+ */
+public final class TodoSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 2;
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+
+    /** Writes made while a rebuild scans, by id; a null value is a removal. */
+    private Map<String, Doc> pending;
+
+    private Map<String, Integer> ordinals;
+    private Map<String, Postings> terms;
+    private String[] ids;
+    private String[] titles;
+    private int[] lengths;
+    private BitSet live;
+    private int next;
+    private int liveCount;
+    private long totalLength;
+
+    public TodoSearchIndex() {
+        reset();
+    }
+
+    /**
+     * Re-populates the index from a streaming scan of the storage. The scan
+     * fills a separate index that replaces this one when it is done, so
+     * searches keep being served meanwhile. Writes that arrive during the
+     * scan go to both: they are recorded and re-applied on top of the scan
+     * before the swap, so a row the scan read just before it changed can
+     * never come back. Concurrent rebuilds run one after the other.
+     */
+    public void rebuild(TodoStorage storage) throws StorageException {
+        long start = System.nanoTime();
+
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                pending = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            TodoSearchIndex fresh = new TodoSearchIndex();
+            boolean scanned = false;
+            try {
+                storage.scan(todo -> {
+                    Doc doc = analyze(todo);
+                    if (doc != null) fresh.add(doc);
+                });
+                scanned = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (scanned) {
+                        for (Map.Entry<String, Doc> e : pending.entrySet()) {
+                            if (e.getValue() != null) fresh.add(e.getValue());
+                            else fresh.delete(e.getKey());
+                        }
+                        adopt(fresh);
+                    }
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        logger.info("Search index rebuilt with {} todos in {} ms",
+                size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(Todo todo) {
+        Doc doc = analyze(todo);
+        if (doc == null) return;
+
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.put(doc.id(), doc);
+            add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.put(id, null);
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the top {@code limit} live todos matching any query term,
+     * best match first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) return List.of();
+
+            List<Postings> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Postings p = terms.get(token);
+                if (p != null && p.size() > 0) lists.add(p);
+            }
+            if (lists.isEmpty()) return List.of();
+
+            double avgLength = Math.max(1.0, (double) totalLength / liveCount);
+
+            // Order terms by their best possible contribution, lowest first
+            int n = lists.size();
+            double[] idf = new double[n];
+            double[] bound = new double[n];
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                Postings p = lists.get(i);
+                // Postings still hold tombstoned docs until the next compaction
+                int df = Math.min(p.size(), liveCount);
+                idf[i] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+                // Shortest possible document: norm can go no lower than K1 * (1 - B)
+                bound[i] = idf[i] * p.maxFreq() * (K1 + 1) / (p.maxFreq() + K1 * (1 - B));
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> bound[i]));
+
+            Postings[] postings = new Postings[n];
+            double[] termIdf = new double[n];
+            double[] upTo = new double[n];
+            for (int j = 0; j < n; j++) {
+                postings[j] = lists.get(order[j]);
+                termIdf[j] = idf[order[j]];
+                upTo[j] = bound[order[j]] + (j == 0 ? 0 : upTo[j - 1]);
+            }
+
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(Math.min(limit, liveCount) + 1,
+                    Comparator.comparingDouble(SearchHit::score));
+            int[] cursor = new int[n];
+            // Score to beat once the queue is full
+            double threshold = Double.NEGATIVE_INFINITY;
+            // Terms below this position cannot lift a document into the top hits on their own
+            int essential = 0;
+
+            while (essential < n) {
+                int doc = Integer.MAX_VALUE;
+                for (int j = essential; j < n; j++) {
+                    if (cursor[j] < postings[j].size()) doc = Math.min(doc, postings[j].doc(cursor[j]));
+                }
+                if (doc == Integer.MAX_VALUE) break;
+
+                double norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                double score = 0;
+                for (int j = n - 1; j >= essential; j--) {
+                    score += take(postings[j], cursor, j, doc, termIdf[j], norm);
+                }
+
+                // Only look the document up in the other terms while it can still make the cut
+                int j = essential - 1;
+                for (; j >= 0 && score + upTo[j] > threshold; j--) {
+                    cursor[j] = postings[j].seek(cursor[j], doc);
+                    score += take(postings[j], cursor, j, doc, termIdf[j], norm);
+                }
+                if (j >= 0 || score <= threshold || !live.get(doc)) continue;
+
+                if (top.size() == limit) top.poll();
+                top.add(new SearchHit(ids[doc], titles[doc], score));
+                if (top.size() == limit) {
+                    threshold = top.peek().score();
+                    while (essential < n && upTo[essential] <= threshold) essential++;
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 contribution of one term to {@code doc}, advancing its cursor past
+     * the document if the term occurs in it.
+     */
+    private static double take(Postings p, int[] cursor, int j, int doc, double idf, double norm) {
+        int i = cursor[j];
+        if (i >= p.size() || p.doc(i) != doc) return 0;
+        cursor[j] = i + 1;
+        int freq = p.freq(i);
+        return idf * freq * (K1 + 1) / (freq + norm);
+    }
+
+    private static Doc analyze(Todo todo) {
+        if (todo.getId() == null) return null;
+
+        Map<String, Integer> tf = new HashMap<>();
+        int length = 0;
+        for (String token : Tokenizer.tokenize(todo.getTitle())) {
+            tf.merge(token, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (String token : Tokenizer.tokenize(todo.getDescription())) {
+            tf.merge(token, 1, Integer::sum);
+            length++;
+        }
+        return new Doc(todo.getId(), todo.getTitle(), tf, length);
+    }
+
+    private void add(Doc d) {
+        Integer previous = ordinals.get(d.id());
+        if (previous != null) tombstone(previous);
+
+        int doc = next++;
+        ensureCapacity(doc + 1);
+        ids[doc] = d.id();
+        titles[doc] = d.title();
+        lengths[doc] = d.length();
+        live.set(doc);
+        ordinals.put(d.id(), doc);
+        liveCount++;
+        totalLength += d.length();
+
+        for (Map.Entry<String, Integer> e : d.tf().entrySet()) {
+            terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, e.getValue());
+        }
+
+        maybeCompact();
+    }
+
+    private void delete(String id) {
+        Integer doc = ordinals.get(id);
+        if (doc != null) {
+            tombstone(doc);
+            maybeCompact();
+        }
+    }
+
+    private void adopt(TodoSearchIndex other) {
+        ordinals = other.ordinals;
+        terms = other.terms;
+        ids = other.ids;
+        titles = other.titles;
+        lengths = other.lengths;
+        live = other.live;
+        next = other.next;
+        liveCount = other.liveCount;
+        totalLength = other.totalLength;
+    }
+
+    private void reset() {
+        ordinals = new HashMap<>();
+        terms = new HashMap<>();
+        ids = new String[16];
+        titles = new String[16];
+        lengths = new int[16];
+        live = new BitSet();
+        next = 0;
+        liveCount = 0;
+        totalLength = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) return;
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        titles = Arrays.copyOf(titles, grown);
+        lengths = Arrays.copyOf(lengths, grown);
+    }
+
+    private void tombstone(int doc) {
+        ordinals.remove(ids[doc]);
+        live.clear(doc);
+        ids[doc] = null;
+        titles[doc] = null;
+        liveCount--;
+        totalLength -= lengths[doc];
+    }
+
+    private void maybeCompact() {
+        int dead = next - liveCount;
+        if (dead < COMPACT_MIN_DEAD || dead < liveCount) return;
+
+        int[] remap = new int[next];
+        int n = 0;
+        for (int doc = 0; doc < next; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = n;
+                ids[n] = ids[doc];
+                titles[n] = titles[doc];
+                lengths[n] = lengths[doc];
+                n++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+
+        Arrays.fill(ids, n, next, null);
+        Arrays.fill(titles, n, next, null);
+        live.clear();
+        live.set(0, n);
+        for (int doc = 0; doc < n; doc++) ordinals.put(ids[doc], doc);
+
+        Iterator<Postings> it = terms.values().iterator();
+        while (it.hasNext()) {
+            Postings p = it.next();
+            p.compact(remap);
+            if (p.size() == 0) it.remove();
+        }
+
+        logger.debug("Search index compacted: {} tombstones dropped, {} todos live", dead, n);
+        next = n;
+    }
+
+    private record Doc(String id, String title, Map<String, Integer> tf, int length) {}
+}
@@ -0,0 +1,176 @@
+package com.example.storage;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps in-process total/completed counters in front of another storage so
+ * that {@link #count()}, {@link #countByCompleted(boolean)} and {@link #stats()}
+ * are answered without a round trip.
+ * <p>
+ * Counters are seeded from the delegate on construction and maintained from
+ * writes made through this instance only. Writes from other processes are not
+ * seen until {@link #refresh()} is called.
+ * <p>
+ * Updates and deletes adjust the counters by what the backend reports it
+ * actually changed ({@link TodoStorage#updateAndGetPreviousCompleted},
+ * {@link TodoStorage#deleteAndGetCompleted}), so concurrent writers to the
+ * same todo are counted once. Both counters live in one immutable
+ * {@link TodoStats} swapped atomically, so readers never see a total and a
+ * completed count from different moments.
+ * <p>
+ * Tenant views apply their writes to these same counters, so the unscoped
+ * instance stays correct whichever view a write goes through. The views
+ * themselves answer counts from the backend, since the counters are not
+ * kept per tenant.
+ */
+public final class CountingTodoStorage implements TodoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountingTodoStorage.class);
+
+    private final TodoStorage delegate;
+    private final TodoStorage unscoped;
+    private final AtomicReference<TodoStats> counters;
+    private final boolean tenantView;
+
+    public CountingTodoStorage(TodoStorage delegate) {
+        this.delegate = delegate;
+        this.unscoped = delegate;
+        this.counters = new AtomicReference<>(new TodoStats(0, 0));
+        this.tenantView = false;
+        refresh();
+    }
+
+    private CountingTodoStorage(CountingTodoStorage parent, String tenant) {
+        this.delegate = parent.delegate.forTenant(tenant);
+        this.unscoped = parent.unscoped;
+        this.counters = parent.counters;
+        this.tenantView = true;
+    }
+
+    /**
+     * Reseeds the shared counters from the unscoped backend.
+     */
+    public void refresh() throws StorageException {
+        TodoStats stats = unscoped.stats();
+        counters.set(stats);
+        logger.debug("Counters seeded: total={}, completed={}", stats.total(), stats.completed());
+    }
+
+    @Override
+    public void save(Todo todo) throws StorageException {
+        delegate.save(todo);
+        adjust(1, todo.isCompleted() ? 1 : 0);
+    }
+
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        delegate.saveAll(todos);
+        adjust(todos.size(), todos.stream().filter(Todo::isCompleted).count());
+    }
+
+    @Override
+    public BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        try {
+            return delegate.bulkImport(reader);
+        } finally {
+            // Native loaders don't report per-row state, so reseed from the backend
+            refresh();
+        }
+    }
+
+    @Override
+    public Optional<Todo> retrieve(String id) throws StorageException {
+        return delegate.retrieve(id);
+    }
+
+    @Override
+    public List<Todo> retrieveAll() throws StorageException {
+        return delegate.retrieveAll();
+    }
+
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        delegate.scan(consumer);
+    }
+
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        return delegate.parallelScan(options);
+    }
+
+    @Override
+    public void update(Todo todo) throws StorageException {
+        updateAndGetPreviousCompleted(todo);
+    }
+
+    @Override
+    public void delete(String id) throws StorageException {
+        deleteAndGetCompleted(id);
+    }
+
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        boolean wasCompleted = delegate.updateAndGetPreviousCompleted(todo);
+        if (wasCompleted != todo.isCompleted()) {
+            adjust(0, todo.isCompleted() ? 1 : -1);
+        }
+        return wasCompleted;
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        Optional<Boolean> removed = delegate.deleteAndGetCompleted(id);
+        removed.ifPresent(wasCompleted -> adjust(-1, wasCompleted ? -1 : 0));
+        return removed;
+    }
+
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        List<String> purged = delegate.purgeCompleted(limit, archive);
+        adjust(-purged.size(), -purged.size());
+        return purged;
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new CountingTodoStorage(this, tenant);
+    }
+
+    @Override
+    public long count() throws StorageException {
+        return tenantView ? delegate.count() : counters.get().total();
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        if (tenantView) return delegate.countByCompleted(completed);
+        TodoStats stats = counters.get();
+        return completed ? stats.completed() : stats.open();
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        return tenantView ? delegate.stats() : counters.get();
+    }
+
+    @Override
+    public void close() throws StorageException {
+        delegate.close();
+    }
+
+    private void adjust(long totalDelta, long completedDelta) {
+        counters.updateAndGet(s -> new TodoStats(s.total() + totalDelta, s.completed() + completedDelta));
+    }
+}
@@ -1,14 +1,103 @@
 package com.example.storage;
 
 import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.scan.PartitionedScan;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public interface TodoStorage {
+public interface TodoStorage extends AutoCloseable {
     void save(Todo todo) throws StorageException;
+    void saveAll(List<Todo> todos) throws StorageException;
     Optional<Todo> retrieve(String id) throws StorageException;
     List<Todo> retrieveAll() throws StorageException;
+    void scan(Consumer<? super Todo> consumer) throws StorageException;
     void update(Todo todo) throws StorageException;
     void delete(String id) throws StorageException;
+
+    /**
+     * Like {@link #update}, but returns the completed flag the todo had
+     * immediately before this write. The flag is determined by the write
+     * itself, so concurrent updates never report the same transition twice.
+     */
+    boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException;
+
+    /**
+     * Like {@link #delete}, but returns the completed flag of the row this
+     * call removed, or empty if it removed nothing (the todo did not exist
+     * or a concurrent delete got there first).
+     */
+    Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException;
+
+    /**
+     * Removes up to {@code limit} completed todos in one short transaction,
+     * first copying them to the archive table/collection when {@code archive}
+     * is set. Returns the ids this call removed. A short chunk does not mean
+     * the backlog is drained, because rows locked by other transactions are
+     * skipped and todos changed concurrently are left alone. Only an empty
+     * result means nothing could be purged at the moment.
+     */
+    List<String> purgeCompleted(int limit, boolean archive) throws StorageException;
+
+    /**
+     * Returns a view of this storage restricted to one tenant. Every
+     * operation on the view only reads and writes todos whose owner is
+     * {@code tenant}, and saves stamp that owner on new todos. The
+     * unscoped storage sees all tenants.
+     */
+    TodoStorage forTenant(String tenant);
+
+    long count() throws StorageException;
+    long countByCompleted(boolean completed) throws StorageException;
+    TodoStats stats() throws StorageException;
+
+    /**
+     * Scans the whole table as concurrently read partitions merged into one
+     * stream, which must be closed. Backends that can split their key space
+     * override this; the default is a single partition over {@link #scan}.
+     */
+    default Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        return PartitionedScan.stream(List.of(this::scan), options);
+    }
+
+    /**
+     * Loads every record from the reader, one chunk at a time. Backends with a
+     * native bulk path override this; the default batches through {@link #saveAll}.
+     * <p>
+     * The import is not atomic: each chunk commits on its own, so if one
+     * fails, the chunks before it stay imported. The exception message then
+     * says how many rows were committed (as "after N rows"), so a retry can
+     * skip them. Backends that load everything in one statement report 0.
+     */
+    default BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        long start = System.nanoTime();
+        long rows = 0;
+
+        try {
+            List<Todo> chunk;
+            while (!(chunk = reader.nextChunk()).isEmpty()) {
+                saveAll(chunk);
+                rows += chunk.size();
+            }
+        } catch (StorageException e) {
+            throw new StorageException("Failed to bulk import todos after " + rows + " rows", e);
+        }
+
+        return new BulkImportResult(rows, System.nanoTime() - start);
+    }
+
+    /**
+     * Releases connections and background threads. Tenant views share these
+     * with the storage they came from, so closing a view closes the storage
+     * too. Closing twice is harmless. The default holds nothing to release.
+     */
+    @Override
+    default void close() throws StorageException {
+    }
 }
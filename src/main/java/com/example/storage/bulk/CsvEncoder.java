@@ -0,0 +1,41 @@
+package com.example.storage.bulk;
+
+import com.example.model.Todo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Renders todos as {@code title,description,completed,owner} CSV lines for the
+ * native loaders. Text fields are always quoted with embedded quotes
+ * doubled; {@code null} is written as the loader-specific unquoted token.
+ */
+public final class CsvEncoder {
+
+    private final String nullToken;
+
+    public CsvEncoder(String nullToken) {
+        this.nullToken = nullToken;
+    }
+
+    public byte[] encode(List<Todo> todos) {
+        StringBuilder sb = new StringBuilder(todos.size() * 64);
+        for (Todo t : todos) {
+            appendText(sb, t.getTitle());
+            sb.append(',');
+            appendText(sb, t.getDescription());
+            sb.append(',').append(t.isCompleted() ? '1' : '0').append(',');
+            appendText(sb, t.getOwner());
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendText(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append(nullToken);
+            return;
+        }
+        sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.storage.bulk;
+
+import com.example.storage.StorageException;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat fromPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+
+        throw new StorageException("Cannot infer import format from file name: " + name);
+    }
+}
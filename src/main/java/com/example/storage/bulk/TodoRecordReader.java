@@ -0,0 +1,211 @@
+package com.example.storage.bulk;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import org.bson.Document;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams todos out of a CSV or NDJSON export in bounded chunks, so an
+ * import never holds more than one chunk of parsed rows in memory.
+ * <p>
+ * CSV follows RFC 4180 quoting. As in PostgreSQL's CSV format, and in what
+ * {@link CsvEncoder} writes, an empty unquoted field is {@code null} and a
+ * quoted empty field ({@code ""}) is the empty string. A header row is optional; when present its
+ * {@code title}, {@code description}, {@code completed} and {@code owner}
+ * columns are used and any others (e.g. {@code id}) are ignored. Without a
+ * header the columns are taken in that order, {@code owner} being optional.
+ * NDJSON lines are JSON objects with the same keys.
+ */
+public final class TodoRecordReader implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private final BufferedReader in;
+    private final ImportFormat format;
+    private final int chunkSize;
+
+    private int titleCol = 0;
+    private int descriptionCol = 1;
+    private int completedCol = 2;
+    private int ownerCol = 3;
+    private boolean headerChecked;
+    private long line;
+
+    public TodoRecordReader(Reader in, ImportFormat format, int chunkSize) {
+        this.in = in instanceof BufferedReader br ? br : new BufferedReader(in, 1 << 16);
+        this.format = format;
+        this.chunkSize = chunkSize;
+    }
+
+    public static TodoRecordReader open(Path path) throws StorageException {
+        return open(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static TodoRecordReader open(Path path, int chunkSize) throws StorageException {
+        try {
+            return new TodoRecordReader(
+                    Files.newBufferedReader(path, StandardCharsets.UTF_8),
+                    ImportFormat.fromPath(path),
+                    chunkSize);
+        } catch (IOException e) {
+            throw new StorageException("Failed to open import file " + path, e);
+        }
+    }
+
+    /**
+     * Returns the next chunk of at most {@code chunkSize} todos, or an empty
+     * list once the input is exhausted.
+     */
+    public List<Todo> nextChunk() throws StorageException {
+        List<Todo> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+        try {
+            while (chunk.size() < chunkSize) {
+                Todo todo = format == ImportFormat.CSV ? nextCsv() : nextJson();
+                if (todo == null) break;
+                chunk.add(todo);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Failed to read import input near line " + line, e);
+        } catch (RuntimeException e) {
+            throw new StorageException("Malformed import record near line " + line, e);
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws StorageException {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new StorageException("Failed to close import input", e);
+        }
+    }
+
+    private Todo nextJson() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            if (text == null) return null;
+            line++;
+        } while (text.isBlank());
+
+        Document d = Document.parse(text);
+        Object completed = d.get("completed");
+        return new Todo(null,
+                d.getString("title"),
+                d.getString("description"),
+                parseBoolean(completed == null ? null : completed.toString()),
+                d.getString("owner"));
+    }
+
+    private Todo nextCsv() throws IOException {
+        List<String> fields = readCsvRecord();
+        if (fields == null) return null;
+
+        if (!headerChecked) {
+            headerChecked = true;
+            if (fields.stream().anyMatch(f -> "title".equalsIgnoreCase(f))) {
+                applyHeader(fields);
+                fields = readCsvRecord();
+                if (fields == null) return null;
+            }
+        }
+
+        return new Todo(null,
+                field(fields, titleCol),
+                field(fields, descriptionCol),
+                parseBoolean(field(fields, completedCol)),
+                field(fields, ownerCol));
+    }
+
+    private void applyHeader(List<String> header) {
+        titleCol = descriptionCol = completedCol = ownerCol = -1;
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i) == null) continue;
+            switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "title" -> titleCol = i;
+                case "description" -> descriptionCol = i;
+                case "completed" -> completedCol = i;
+                case "owner" -> ownerCol = i;
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Reads one CSV record, which may span several physical lines when a
+     * quoted field contains line breaks. Returns {@code null} at end of input.
+     */
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(value(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n') {
+                line++;
+                if (fields.isEmpty() && field.isEmpty() && !wasQuoted) {
+                    any = false;
+                    continue;
+                }
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!any) return null;
+        fields.add(value(field, wasQuoted));
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+
+    private static String field(List<String> fields, int col) {
+        if (col < 0 || col >= fields.size()) return null;
+        return fields.get(col);
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value == null) return false;
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        return v.equals("true") || v.equals("1") || v.equals("yes") || v.equals("y");
+    }
+}
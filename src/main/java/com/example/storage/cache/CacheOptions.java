@@ -0,0 +1,37 @@
+package com.example.storage.cache;
+
+import java.util.Properties;
+
+/**
+ * @param maxEntries          todos kept in the near-cache, evicted by CLOCK (second chance) beyond that
+ * @param ttlMillis           upper bound on entry age, and so on how long an entry can stay stale when
+ *                            an invalidation is lost (a polling transport missing a late commit, or
+ *                            pending ids dropped while publishing fails); at most {@value #MAX_TTL_MILLIS} ms
+ * @param flushIntervalMillis how long local invalidations are coalesced before publishing
+ * @param maxBatchSize        publish early once this many distinct ids are pending
+ * @param pollIntervalMillis  how often polling transports check for remote invalidations
+ */
+public record CacheOptions(int maxEntries, long ttlMillis, long flushIntervalMillis,
+                           int maxBatchSize, long pollIntervalMillis) {
+
+    public static final long MAX_TTL_MILLIS = 10 * 60 * 1000L;
+
+    public CacheOptions {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+        if (ttlMillis < 1 || ttlMillis > MAX_TTL_MILLIS) {
+            throw new IllegalArgumentException("ttlMillis must be between 1 and " + MAX_TTL_MILLIS);
+        }
+        if (flushIntervalMillis < 1) throw new IllegalArgumentException("flushIntervalMillis must be >= 1");
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        if (pollIntervalMillis < 1) throw new IllegalArgumentException("pollIntervalMillis must be >= 1");
+    }
+
+    public static CacheOptions fromProperties(Properties props) {
+        return new CacheOptions(
+                Integer.parseInt(props.getProperty("cache.maxEntries", "100000")),
+                Long.parseLong(props.getProperty("cache.ttlSeconds", "300")) * 1000,
+                Long.parseLong(props.getProperty("cache.flushMillis", "50")),
+                Integer.parseInt(props.getProperty("cache.maxBatchSize", "500")),
+                Long.parseLong(props.getProperty("cache.pollMillis", "200")));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.storage.cache;
+
+/**
+ * @param received ids invalidated by other nodes
+ * @param published ids sent to other nodes, after coalescing
+ * @param batches   publish calls made
+ * @param dropped   ids given up on after publishing kept failing
+ */
+public record CacheStats(long hits, long misses, long received, long published, long batches, long dropped) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
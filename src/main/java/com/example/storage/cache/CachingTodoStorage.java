@@ -0,0 +1,429 @@
+package com.example.storage.cache;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Near-cache for {@link #retrieve(String)} that stays coherent across app
+ * instances sharing a backend.
+ * <p>
+ * Updates, deletes and purges made through this instance evict the affected
+ * ids locally at once and queue them for publishing. The queue is a set, so
+ * repeated writes to a hot todo within one flush interval go out as a single
+ * id; it is flushed on a timer or as soon as it reaches the batch size.
+ * While publishing fails the ids are kept for the next flush, up to
+ * {@value NearCache#MAX_PENDING_BATCHES} batches; beyond that they are
+ * dropped and other nodes fall back on the TTL.
+ * Invalidations from other nodes arrive through the {@link InvalidationTransport}.
+ * <p>
+ * A lookup that misses records a version stamp for the id before reading
+ * the backend and only keeps its result if that id has not been invalidated
+ * since, so a slow read cannot put back a value that was invalidated while
+ * it ran, and invalidations of other ids do not discard it. Versions are
+ * kept per stripe of ids, so memory does not grow with the key space.
+ * Lookups and fills do not share a lock; when the cache is over
+ * {@link CacheOptions#maxEntries()} it evicts with CLOCK (second chance).
+ * Entries also expire after {@link CacheOptions#ttlMillis()} in case an
+ * invalidation is lost.
+ */
+public final class CachingTodoStorage implements TodoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingTodoStorage.class);
+
+    private final TodoStorage delegate;
+    private final NearCache cache;
+    private final String tenant;
+
+    public CachingTodoStorage(TodoStorage delegate, InvalidationTransport transport, CacheOptions options) {
+        this.delegate = delegate;
+        this.cache = new NearCache(transport, options);
+        this.tenant = null;
+        transport.subscribe(cache);
+    }
+
+    private CachingTodoStorage(CachingTodoStorage parent, String tenant) {
+        this.delegate = parent.delegate.forTenant(tenant);
+        this.cache = parent.cache;
+        this.tenant = tenant;
+    }
+
+    /**
+     * Tenant views share this instance's cache and invalidation stream; a
+     * cached todo owned by another tenant is treated as absent.
+     */
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new CachingTodoStorage(this, tenant);
+    }
+
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void save(Todo todo) throws StorageException {
+        delegate.save(todo);
+    }
+
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        delegate.saveAll(todos);
+    }
+
+    @Override
+    public BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        return delegate.bulkImport(reader);
+    }
+
+    @Override
+    public Optional<Todo> retrieve(String id) throws StorageException {
+        Todo cached = cache.get(id);
+        if (cached != null) {
+            if (tenant != null && !tenant.equals(cached.getOwner())) return Optional.empty();
+            return Optional.of(copy(cached));
+        }
+
+        long stamp = cache.stamp(id);
+        Optional<Todo> todo = delegate.retrieve(id);
+        todo.ifPresent(t -> cache.put(id, copy(t), stamp));
+        return todo;
+    }
+
+    @Override
+    public List<Todo> retrieveAll() throws StorageException {
+        return delegate.retrieveAll();
+    }
+
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        delegate.scan(consumer);
+    }
+
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        return delegate.parallelScan(options);
+    }
+
+    @Override
+    public void update(Todo todo) throws StorageException {
+        try {
+            delegate.update(todo);
+        } finally {
+            cache.invalidateLocal(List.of(todo.getId()));
+        }
+    }
+
+    @Override
+    public void delete(String id) throws StorageException {
+        try {
+            delegate.delete(id);
+        } finally {
+            cache.invalidateLocal(List.of(id));
+        }
+    }
+
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        try {
+            return delegate.updateAndGetPreviousCompleted(todo);
+        } finally {
+            cache.invalidateLocal(List.of(todo.getId()));
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        try {
+            return delegate.deleteAndGetCompleted(id);
+        } finally {
+            cache.invalidateLocal(List.of(id));
+        }
+    }
+
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        List<String> purged = delegate.purgeCompleted(limit, archive);
+        if (!purged.isEmpty()) cache.invalidateLocal(purged);
+        return purged;
+    }
+
+    @Override
+    public long count() throws StorageException {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        return delegate.countByCompleted(completed);
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        return delegate.stats();
+    }
+
+    /**
+     * Publishes any pending invalidations, then closes the transport and the
+     * backend. Tenant views share all three with the root instance.
+     */
+    @Override
+    public void close() throws StorageException {
+        try {
+            cache.close();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private static Todo copy(Todo t) {
+        return new Todo(t.getId(), t.getTitle(), t.getDescription(), t.isCompleted(), t.getOwner());
+    }
+
+    /**
+     * A cached todo. {@code referenced} is the CLOCK bit: set by hits,
+     * cleared when the evictor passes over the entry once.
+     */
+    private static final class Entry {
+        final String id;
+        final Todo todo;
+        final long loadedAt;
+        volatile boolean referenced;
+
+        Entry(String id, Todo todo, long loadedAt) {
+            this.id = id;
+            this.todo = todo;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class NearCache implements InvalidationTransport.Listener {
+
+        private static final int STRIPES = 1 << 14;
+        private static final int MAX_PENDING_BATCHES = 100;
+
+        private final InvalidationTransport transport;
+        private final CacheOptions options;
+        private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+        // Invalidation counters per id stripe, plus one bumped by invalidateAll
+        private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+        private final AtomicLong epoch = new AtomicLong();
+        // Entries in insertion order for CLOCK eviction; may hold entries already gone from the map
+        private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Set<String> pending = new LinkedHashSet<>();
+        private final ScheduledExecutorService flusher;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder published = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        NearCache(InvalidationTransport transport, CacheOptions options) {
+            this.transport = transport;
+            this.options = options;
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cache-invalidation-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flush,
+                    options.flushIntervalMillis(), options.flushIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        Todo get(String id) {
+            Entry e = entries.get(id);
+            if (e != null && System.currentTimeMillis() - e.loadedAt > options.ttlMillis()) {
+                entries.remove(id, e);
+                e = null;
+            }
+            if (e == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            if (!e.referenced) e.referenced = true;
+            return e.todo;
+        }
+
+        /**
+         * Changes whenever {@code id} may have been invalidated. Both counters
+         * only grow, so their sum changes if either does.
+         */
+        long stamp(String id) {
+            return versions.get(stripe(id)) + epoch.get();
+        }
+
+        /**
+         * Caches a value read after {@link #stamp} returned {@code seen}, unless
+         * the id was invalidated in between. Invalidations bump the stamp before
+         * removing the entry, so either they remove this entry or the re-check
+         * here sees the new stamp and takes it back out.
+         */
+        void put(String id, Todo todo, long seen) {
+            if (stamp(id) != seen) return;
+
+            Entry e = new Entry(id, todo, System.currentTimeMillis());
+            entries.put(id, e);
+            if (stamp(id) != seen) {
+                entries.remove(id, e);
+                return;
+            }
+
+            clock.add(e);
+            queued.incrementAndGet();
+            evictIfNeeded();
+        }
+
+        /**
+         * Second-chance eviction, run by one caller at a time. Also drops queue
+         * slots of entries that were invalidated or replaced, so the queue stays
+         * within twice the cache size.
+         */
+        private void evictIfNeeded() {
+            int max = options.maxEntries();
+            if (entries.size() <= max && queued.get() <= 2 * max) return;
+            if (!evicting.compareAndSet(false, true)) return;
+            try {
+                for (int budget = 2 * queued.get(); budget > 0; budget--) {
+                    boolean full = entries.size() > max;
+                    if (!full && queued.get() <= max) break;
+
+                    Entry e = clock.poll();
+                    if (e == null) break;
+                    if (entries.get(e.id) != e) {
+                        queued.decrementAndGet();
+                    } else if (full && !e.referenced) {
+                        entries.remove(e.id, e);
+                        queued.decrementAndGet();
+                    } else {
+                        if (full) e.referenced = false;
+                        clock.add(e);
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+
+        private void evict(Collection<String> ids) {
+            for (String id : ids) {
+                versions.incrementAndGet(stripe(id));
+                entries.remove(id);
+            }
+        }
+
+        private static int stripe(String id) {
+            int h = id.hashCode();
+            return (h ^ (h >>> 16)) & (STRIPES - 1);
+        }
+
+        void invalidateLocal(Collection<String> ids) {
+            evict(ids);
+            boolean full;
+            synchronized (pending) {
+                pending.addAll(ids);
+                full = pending.size() >= options.maxBatchSize();
+                trimPending();
+            }
+            if (full) flusher.execute(this::flush);
+        }
+
+        @Override
+        public void invalidate(Collection<String> ids) {
+            evict(ids);
+            received.add(ids.size());
+        }
+
+        @Override
+        public void invalidateAll() {
+            epoch.incrementAndGet();
+            entries.clear();
+        }
+
+        private void flush() {
+            List<String> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) return;
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            try {
+                for (int i = 0; i < batch.size(); i += options.maxBatchSize()) {
+                    List<String> chunk = batch.subList(i, Math.min(batch.size(), i + options.maxBatchSize()));
+                    transport.publish(chunk);
+                    published.add(chunk.size());
+                    batches.increment();
+                }
+            } catch (Exception e) {
+                // Keep the ids for the next flush; peers rely on the TTL until then
+                logger.warn("Failed to publish {} invalidations, will retry", batch.size(), e);
+                synchronized (pending) {
+                    pending.addAll(batch);
+                    trimPending();
+                }
+            }
+        }
+
+        /**
+         * Drops every pending id once publishing has fallen too far behind, so
+         * a transport outage cannot grow the set without limit. Peers then
+         * keep those entries until their TTL, which {@link CacheOptions} caps.
+         */
+        private void trimPending() {
+            int limit = options.maxBatchSize() * MAX_PENDING_BATCHES;
+            if (pending.size() <= limit) return;
+            logger.warn("Dropping {} unpublished invalidations; other nodes will expire them by TTL", pending.size());
+            dropped.add(pending.size());
+            pending.clear();
+        }
+
+        CacheStats stats() {
+            return new CacheStats(hits.sum(), misses.sum(), received.sum(), published.sum(), batches.sum(),
+                    dropped.sum());
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+            transport.close();
+            logger.info("Near-cache closed: {}", stats());
+        }
+    }
+}
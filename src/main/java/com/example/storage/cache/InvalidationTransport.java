@@ -0,0 +1,31 @@
+package com.example.storage.cache;
+
+import com.example.storage.StorageException;
+
+import java.util.Collection;
+
+/**
+ * Carries todo id invalidations between app instances that share a backend.
+ * <p>
+ * Each transport instance represents one node. Batches published by a node
+ * are delivered to the listeners of every other node; a node never hears
+ * its own batches. Delivery is at-least-once and unordered. When a transport
+ * may have missed messages (for example after reconnecting) it calls
+ * {@link Listener#invalidateAll()} instead.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    void publish(Collection<String> ids) throws StorageException;
+
+    void subscribe(Listener listener);
+
+    @Override
+    void close();
+
+    interface Listener {
+
+        void invalidate(Collection<String> ids);
+
+        void invalidateAll();
+    }
+}
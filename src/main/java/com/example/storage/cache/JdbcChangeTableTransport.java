@@ -0,0 +1,155 @@
+package com.example.storage.cache;
+
+import com.example.storage.StorageException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport over a {@code todo_invalidations} change table, for MySQL, H2
+ * and Postgres. Publishing inserts one row per id; every node polls for
+ * rows past the highest sequence number it has seen.
+ * <p>
+ * Auto-increment values are assigned at insert time but become visible at
+ * commit, so a lower sequence can appear after a higher one has been read.
+ * Each poll therefore also re-reads the sequence numbers it skipped over,
+ * for {@value #GAP_WINDOW_MILLIS} ms after first seeing each gap, however
+ * many rows were committed since. A gap can also come from a rolled-back
+ * insert and then never fills, so gaps are dropped after that window and at
+ * most {@value #MAX_GAPS} are tracked: a row committed later than that is
+ * missed, and the entry it should have evicted lives until the cache TTL
+ * expires it. Rows older than the retention period are deleted
+ * periodically by whichever node gets there first.
+ */
+public final class JdbcChangeTableTransport extends PollingInvalidationTransport {
+
+    private static final long GAP_WINDOW_MILLIS = 60 * 1000L;
+    private static final int MAX_GAPS = 1000;
+    private static final int POLL_LIMIT = 1000;
+    private static final long RETENTION_MILLIS = 60 * 60 * 1000L;
+    private static final long CLEANUP_INTERVAL_MILLIS = 60 * 1000L;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    private long lastSeq;
+    // Skipped sequence numbers below lastSeq, mapped to when they were first seen (System.nanoTime)
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private long lastCleanup = System.currentTimeMillis();
+
+    public JdbcChangeTableTransport(String jdbcUrl, String user, String password, long pollIntervalMillis) {
+        super("change-table-poller", pollIntervalMillis);
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        initialize();
+        start();
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, user, password);
+    }
+
+    private void initialize() {
+        String seqColumn = jdbcUrl.startsWith("jdbc:postgresql:")
+                ? "seq BIGSERIAL PRIMARY KEY"
+                : "seq BIGINT AUTO_INCREMENT PRIMARY KEY";
+
+        try (Connection conn = connect();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS todo_invalidations (
+                    %s,
+                    origin VARCHAR(36) NOT NULL,
+                    todo_id VARCHAR(64) NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """.formatted(seqColumn));
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM todo_invalidations")) {
+                rs.next();
+                lastSeq = rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            throw new StorageException("Failed to initialize invalidation table", e);
+        }
+    }
+
+    @Override
+    public void publish(Collection<String> ids) throws StorageException {
+        try (Connection conn = connect();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO todo_invalidations (origin, todo_id) VALUES (?, ?)")) {
+
+            for (String id : ids) {
+                ps.setString(1, origin);
+                ps.setString(2, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+        } catch (SQLException e) {
+            throw new StorageException("Failed to publish invalidations", e);
+        }
+    }
+
+    @Override
+    protected List<String> poll() throws Exception {
+        Thread.sleep(pollIntervalMillis);
+
+        long polledAt = System.nanoTime();
+        gaps.values().removeIf(seenAt -> polledAt - seenAt > TimeUnit.MILLISECONDS.toNanos(GAP_WINDOW_MILLIS));
+
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = connect()) {
+            String sql = "SELECT seq, origin, todo_id FROM todo_invalidations WHERE seq > ?"
+                    + (gaps.isEmpty() ? "" : " OR seq IN (" + "?,".repeat(gaps.size() - 1) + "?)")
+                    + " ORDER BY seq LIMIT " + POLL_LIMIT;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                ps.setLong(i++, lastSeq);
+                for (long gap : gaps.keySet()) ps.setLong(i++, gap);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long seq = rs.getLong(1);
+                        if (seq <= lastSeq) {
+                            if (gaps.remove(seq) == null) continue;
+                        } else {
+                            for (long skipped = Math.max(lastSeq + 1, seq - MAX_GAPS); skipped < seq; skipped++) {
+                                gaps.put(skipped, polledAt);
+                            }
+                            lastSeq = seq;
+                        }
+                        if (!origin.equals(rs.getString(2))) ids.add(rs.getString(3));
+                    }
+                }
+            }
+            while (gaps.size() > MAX_GAPS) gaps.pollFirstEntry();
+
+            long now = System.currentTimeMillis();
+            if (now - lastCleanup > CLEANUP_INTERVAL_MILLIS) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "DELETE FROM todo_invalidations WHERE created_at < ?")) {
+                    ps.setTimestamp(1, new Timestamp(now - RETENTION_MILLIS));
+                    ps.executeUpdate();
+                }
+                lastCleanup = now;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.storage.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process transport. Each instance is one node on a shared bus; use
+ * {@link #connect()} to add further nodes, e.g. to run several caches over
+ * one storage in a single JVM. Batches are delivered synchronously on the
+ * publishing thread.
+ */
+public final class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<LoopbackInvalidationTransport> bus;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackInvalidationTransport() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackInvalidationTransport(List<LoopbackInvalidationTransport> bus) {
+        this.bus = bus;
+        bus.add(this);
+    }
+
+    /**
+     * Adds another node to this transport's bus.
+     */
+    public LoopbackInvalidationTransport connect() {
+        return new LoopbackInvalidationTransport(bus);
+    }
+
+    @Override
+    public void publish(Collection<String> ids) {
+        List<String> batch = List.copyOf(ids);
+        for (LoopbackInvalidationTransport node : bus) {
+            if (node == this) continue;
+            for (Listener l : node.listeners) l.invalidate(batch);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        bus.remove(this);
+        listeners.clear();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.storage.cache;
+
+import com.example.storage.StorageException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport over a {@code <collection>_invalidations} collection, one
+ * document per published batch. A TTL index expires old batches.
+ * <p>
+ * Change streams would avoid polling but need a replica set, so nodes
+ * poll instead. Each batch is stamped by the server ({@code $currentDate}),
+ * not by the publisher, so clock skew between app nodes does not matter.
+ * A poll reads every batch stamped within {@value #LOOKBACK_MILLIS} ms of
+ * the newest stamp already seen and skips the ones already delivered, which
+ * catches inserts that become visible after a later one. A batch that
+ * becomes visible later than that, or is stamped by a primary whose clock
+ * is behind its predecessor's by more than that, is missed and the entries
+ * it should have evicted live until the cache TTL expires them.
+ */
+public final class MongoChangeCollectionTransport extends PollingInvalidationTransport {
+
+    private static final long LOOKBACK_MILLIS = 5000;
+    private static final long RETENTION_SECONDS = 3600;
+
+    private final MongoClient client;
+    private final MongoCollection<Document> changes;
+    private final Map<ObjectId, Long> seen = new HashMap<>();
+    // Newest server stamp read so far, starting from the newest batch already stored
+    private long newest;
+
+    public MongoChangeCollectionTransport(String connectionString, String database, String collectionName,
+                                          long pollIntervalMillis) {
+        super("mongo-change-poller", pollIntervalMillis);
+        try {
+            this.client = MongoClients.create(connectionString);
+            this.changes = client.getDatabase(database).getCollection(collectionName + "_invalidations");
+            changes.createIndex(Indexes.ascending("at"),
+                    new IndexOptions().expireAfter(RETENTION_SECONDS, TimeUnit.SECONDS));
+            Document last = changes.find().sort(Sorts.descending("at")).first();
+            this.newest = last == null ? 0 : last.getDate("at").getTime();
+        } catch (Exception e) {
+            throw new StorageException("Failed to initialize Mongo invalidation collection", e);
+        }
+        start();
+    }
+
+    @Override
+    public void publish(Collection<String> ids) throws StorageException {
+        try {
+            changes.updateOne(Filters.eq("_id", new ObjectId()),
+                    Updates.combine(
+                            Updates.setOnInsert("origin", origin),
+                            Updates.setOnInsert("ids", new ArrayList<>(ids)),
+                            Updates.currentDate("at")),
+                    new UpdateOptions().upsert(true));
+        } catch (Exception e) {
+            throw new StorageException("Failed to publish invalidations", e);
+        }
+    }
+
+    @Override
+    protected List<String> poll() throws Exception {
+        Thread.sleep(pollIntervalMillis);
+
+        List<String> ids = new ArrayList<>();
+        for (Document d : changes.find(Filters.gte("at", new Date(newest - LOOKBACK_MILLIS)))) {
+            long at = d.getDate("at").getTime();
+            if (seen.putIfAbsent(d.getObjectId("_id"), at) != null) continue;
+            newest = Math.max(newest, at);
+            if (!origin.equals(d.getString("origin"))) ids.addAll(d.getList("ids", String.class));
+        }
+        long since = newest - LOOKBACK_MILLIS;
+        seen.values().removeIf(at -> at < since);
+        return ids;
+    }
+
+    @Override
+    protected void release() {
+        client.close();
+    }
+}
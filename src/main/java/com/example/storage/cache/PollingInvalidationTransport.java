@@ -0,0 +1,99 @@
+package com.example.storage.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base for transports that receive by pulling from the backend on a
+ * dedicated daemon thread. A failed poll is logged and retried after the
+ * poll interval; the first successful poll after a failure invalidates
+ * everything, since messages may have been missed in between.
+ */
+abstract class PollingInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingInvalidationTransport.class);
+
+    /** Identifies this node's own messages so they can be skipped. */
+    protected final String origin = UUID.randomUUID().toString();
+    protected final long pollIntervalMillis;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    PollingInvalidationTransport(String name, long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the poller; called by subclasses once their state is ready.
+     */
+    protected final void start() {
+        thread.start();
+    }
+
+    /**
+     * Returns ids invalidated by other nodes since the previous call,
+     * waiting up to about {@link #pollIntervalMillis} for some to arrive.
+     */
+    protected abstract List<String> poll() throws Exception;
+
+    /**
+     * Releases backend resources after the poller has stopped.
+     */
+    protected void release() {}
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void run() {
+        boolean failed = false;
+        while (!closed) {
+            try {
+                List<String> ids = poll();
+                if (failed) {
+                    logger.info("{}: recovered, invalidating all cached entries", thread.getName());
+                    for (Listener l : listeners) l.invalidateAll();
+                    failed = false;
+                }
+                if (!ids.isEmpty()) deliver(ids);
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                if (closed) break;
+                if (!failed) logger.warn("{}: poll failed, retrying", thread.getName(), e);
+                failed = true;
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void deliver(Collection<String> ids) {
+        for (Listener l : listeners) l.invalidate(ids);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            thread.join(pollIntervalMillis * 2 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        release();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.storage.cache;
+
+import com.example.storage.StorageException;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Postgres {@code LISTEN/NOTIFY} transport. Each batch is sent as one or
+ * more {@code pg_notify} calls whose payload is {@code origin|id,id,...},
+ * kept under the server's 8000 byte payload limit. A single long-lived
+ * connection listens; it is reopened if it breaks, and anything sent while
+ * it was down is covered by an invalidate-all.
+ */
+public final class PostgresNotifyTransport extends PollingInvalidationTransport {
+
+    public static final String CHANNEL = "todo_invalidations";
+    private static final int MAX_PAYLOAD = 7500;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private Connection listener;
+
+    public PostgresNotifyTransport(String jdbcUrl, String user, String password, long pollIntervalMillis) {
+        super("pg-notify-listener", pollIntervalMillis);
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        try {
+            listen();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to LISTEN on " + CHANNEL, e);
+        }
+        start();
+    }
+
+    private void listen() throws SQLException {
+        listener = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement stmt = listener.createStatement()) {
+            stmt.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    @Override
+    public void publish(Collection<String> ids) throws StorageException {
+        try (Connection conn = DriverManager.getConnection(jdbcUrl, user, password);
+             PreparedStatement ps = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+
+            StringBuilder payload = new StringBuilder();
+            for (String id : ids) {
+                if (payload.length() + id.length() + 1 > MAX_PAYLOAD) {
+                    notify(ps, payload);
+                    payload.setLength(0);
+                }
+                payload.append(payload.isEmpty() ? "" : ",").append(id);
+            }
+            if (!payload.isEmpty()) notify(ps, payload);
+
+        } catch (SQLException e) {
+            throw new StorageException("Failed to publish invalidations", e);
+        }
+    }
+
+    private void notify(PreparedStatement ps, CharSequence ids) throws SQLException {
+        ps.setString(1, CHANNEL);
+        ps.setString(2, origin + "|" + ids);
+        ps.execute();
+    }
+
+    @Override
+    protected List<String> poll() throws Exception {
+        try {
+            if (listener == null) listen();
+
+            PGNotification[] notifications =
+                    listener.unwrap(PGConnection.class).getNotifications((int) pollIntervalMillis);
+            if (notifications == null) return List.of();
+
+            List<String> ids = new ArrayList<>();
+            for (PGNotification n : notifications) {
+                String payload = n.getParameter();
+                int sep = payload.indexOf('|');
+                if (sep < 0 || payload.substring(0, sep).equals(origin)) continue;
+                ids.addAll(Arrays.asList(payload.substring(sep + 1).split(",")));
+            }
+            return ids;
+
+        } catch (SQLException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void release() {
+        if (listener == null) return;
+        try {
+            listener.close();
+        } catch (SQLException ignored) {
+            // already broken
+        }
+        listener = null;
+    }
+}
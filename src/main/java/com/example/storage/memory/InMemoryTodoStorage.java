@@ -0,0 +1,188 @@
+package com.example.storage.memory;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Process-local storage with numeric ids, for tests and load runs that
+ * should not depend on an external database. Todos are copied in and out
+ * so callers never share instances with the store.
+ */
+public final class InMemoryTodoStorage implements TodoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTodoStorage.class);
+
+    private final ConcurrentNavigableMap<Long, Todo> todos;
+    private final ConcurrentNavigableMap<Long, Todo> archived;
+    private final AtomicLong nextId;
+    private final String tenant;
+
+    public InMemoryTodoStorage() {
+        this.todos = new ConcurrentSkipListMap<>();
+        this.archived = new ConcurrentSkipListMap<>();
+        this.nextId = new AtomicLong(1);
+        this.tenant = null;
+    }
+
+    private InMemoryTodoStorage(InMemoryTodoStorage parent, String tenant) {
+        this.todos = parent.todos;
+        this.archived = parent.archived;
+        this.nextId = parent.nextId;
+        this.tenant = tenant;
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new InMemoryTodoStorage(this, tenant);
+    }
+
+    @Override
+    public void save(Todo todo) throws StorageException {
+        long id = nextId.getAndIncrement();
+        todo.setId(String.valueOf(id));
+        if (tenant != null) todo.setOwner(tenant);
+        todos.put(id, copy(todo));
+        logger.debug("Memory: saved {}", id);
+    }
+
+    @Override
+    public void saveAll(List<Todo> batch) throws StorageException {
+        for (Todo todo : batch) {
+            long id = nextId.getAndIncrement();
+            todo.setId(String.valueOf(id));
+            if (tenant != null) todo.setOwner(tenant);
+            todos.put(id, copy(todo));
+        }
+    }
+
+    @Override
+    public Optional<Todo> retrieve(String id) throws StorageException {
+        return Optional.ofNullable(todos.get(parseId(id)))
+                .filter(this::visible)
+                .map(InMemoryTodoStorage::copy);
+    }
+
+    @Override
+    public List<Todo> retrieveAll() throws StorageException {
+        List<Todo> list = new ArrayList<>();
+        scan(list::add);
+        return list;
+    }
+
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        for (Todo todo : todos.values()) {
+            if (visible(todo)) consumer.accept(copy(todo));
+        }
+    }
+
+    @Override
+    public void update(Todo todo) throws StorageException {
+        updateAndGetPreviousCompleted(todo);
+    }
+
+    @Override
+    public void delete(String id) throws StorageException {
+        deleteAndGetCompleted(id);
+    }
+
+    /**
+     * Compare-and-set loops rather than {@code computeIfPresent}: the skip
+     * list may apply a remapping function more than once, so it cannot be
+     * used to learn which value this call actually replaced or removed.
+     */
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        long id = parseId(todo.getId());
+        while (true) {
+            Todo existing = todos.get(id);
+            if (existing == null || !visible(existing)) {
+                throw new StorageException("No todo updated, id not found: " + todo.getId());
+            }
+
+            // Last writer wins, like the database backends; ownership never changes on update
+            Todo replacement = copy(todo);
+            replacement.setOwner(existing.getOwner());
+            if (todos.replace(id, existing, replacement)) return existing.isCompleted();
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        long key = parseId(id);
+        while (true) {
+            Todo existing = todos.get(key);
+            if (existing == null || !visible(existing)) return Optional.empty();
+            if (todos.remove(key, existing)) return Optional.of(existing.isCompleted());
+        }
+    }
+
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        List<String> purged = new ArrayList<>();
+        for (var it = todos.entrySet().iterator(); it.hasNext() && purged.size() < limit; ) {
+            var e = it.next();
+            if (!e.getValue().isCompleted() || !visible(e.getValue())) continue;
+
+            if (todos.remove(e.getKey(), e.getValue())) {
+                if (archive) archived.put(e.getKey(), e.getValue());
+                purged.add(String.valueOf(e.getKey()));
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public long count() throws StorageException {
+        return tenant == null ? todos.size() : stats().total();
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        return todos.values().stream()
+                .filter(this::visible)
+                .filter(t -> t.isCompleted() == completed)
+                .count();
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        long total = 0;
+        long completed = 0;
+        for (Todo todo : todos.values()) {
+            if (!visible(todo)) continue;
+            total++;
+            if (todo.isCompleted()) completed++;
+        }
+        return new TodoStats(total, completed);
+    }
+
+    private boolean visible(Todo todo) {
+        return tenant == null || Objects.equals(tenant, todo.getOwner());
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new StorageException("Invalid todo id: " + id, e);
+        }
+    }
+
+    private static Todo copy(Todo t) {
+        return new Todo(t.getId(), t.getTitle(), t.getDescription(), t.isCompleted(), t.getOwner());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.storage.mongo;
+
+import com.example.storage.StorageException;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Subscriber that exposes a publisher as a blocking iterator with bounded
+ * demand: it never requests more than {@code bufferSize} elements ahead of
+ * the consuming thread, so a slow consumer throttles the server cursor
+ * instead of filling the heap.
+ */
+final class BlockingSubscriber<T> implements Subscriber<T>, Iterator<T>, AutoCloseable {
+
+    private static final Object COMPLETE = new Object();
+
+    private final int bufferSize;
+    private final int refill;
+    private final BlockingQueue<Object> queue;
+
+    private volatile Subscription subscription;
+    private Object next;
+    private int consumedSinceRequest;
+    private boolean done;
+
+    BlockingSubscriber(int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.refill = Math.max(1, bufferSize / 2);
+        // +1 for the terminal signal, which arrives without demand
+        this.queue = new ArrayBlockingQueue<>(bufferSize + 1);
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+        s.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        queue.offer(item);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        queue.offer(new Failure(t));
+    }
+
+    @Override
+    public void onComplete() {
+        queue.offer(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (done) return false;
+
+        Object item;
+        try {
+            item = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while reading from MongoDB", e);
+        }
+
+        if (item == COMPLETE) {
+            done = true;
+            return false;
+        }
+        if (item instanceof Failure f) {
+            done = true;
+            throw new StorageException("MongoDB stream failed", f.cause());
+        }
+
+        next = item;
+        if (++consumedSinceRequest >= refill) {
+            subscription.request(consumedSinceRequest);
+            consumedSinceRequest = 0;
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T item = (T) next;
+        next = null;
+        return item;
+    }
+
+    @Override
+    public void close() {
+        if (!done && subscription != null) subscription.cancel();
+    }
+
+    private record Failure(Throwable cause) {}
+}
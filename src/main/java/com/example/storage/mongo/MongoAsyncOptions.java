@@ -0,0 +1,54 @@
+package com.example.storage.mongo;
+
+import com.mongodb.WriteConcern;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Pool and write-concern tuning for {@link MongoAsyncTodoStorage}.
+ *
+ * @param maxPoolSize   max connections per server
+ * @param minPoolSize   connections kept open when idle
+ * @param maxWaitMillis how long an operation may wait for a pooled connection
+ * @param writeConcern  acknowledgement required for writes
+ * @param maxInFlight   max concurrent operations issued by pipelined writes such as bulk import
+ */
+public record MongoAsyncOptions(int maxPoolSize, int minPoolSize, long maxWaitMillis,
+                                WriteConcern writeConcern, int maxInFlight) {
+
+    public static MongoAsyncOptions defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Reads {@code mongo.async.*} properties; missing keys keep the driver defaults.
+     */
+    public static MongoAsyncOptions fromProperties(Properties props) {
+        return new MongoAsyncOptions(
+                Integer.parseInt(props.getProperty("mongo.async.maxPoolSize", "100")),
+                Integer.parseInt(props.getProperty("mongo.async.minPoolSize", "0")),
+                Long.parseLong(props.getProperty("mongo.async.maxWaitMillis", "120000")),
+                parseWriteConcern(props.getProperty("mongo.async.writeConcern", "acknowledged")),
+                Integer.parseInt(props.getProperty("mongo.async.maxInFlight", "8")));
+    }
+
+    /**
+     * Maps the driver's named concerns without {@link WriteConcern#valueOf},
+     * which lower-cases with the default locale and so misses names such as
+     * {@code majority} under a Turkish one.
+     */
+    private static WriteConcern parseWriteConcern(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "acknowledged" -> WriteConcern.ACKNOWLEDGED;
+            case "unacknowledged" -> WriteConcern.UNACKNOWLEDGED;
+            case "journaled" -> WriteConcern.JOURNALED;
+            case "majority" -> WriteConcern.MAJORITY;
+            case "w1" -> WriteConcern.W1;
+            case "w2" -> WriteConcern.W2;
+            case "w3" -> WriteConcern.W3;
+            // Numeric w values, e.g. "2"
+            default -> new WriteConcern(Integer.parseInt(value.trim()));
+        };
+    }
+}
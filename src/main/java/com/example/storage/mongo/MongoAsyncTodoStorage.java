@@ -0,0 +1,384 @@
+package com.example.storage.mongo;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.scan.PartitionedScan;
+import com.example.storage.scan.ScanPartition;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * MongoDB storage on the reactive-streams driver. Every operation has a
+ * non-blocking {@code *Async} variant returning a {@link CompletableFuture};
+ * the {@link TodoStorage} methods simply wait on those. Streaming reads use
+ * bounded demand, and bulk import keeps several chunks in flight at once.
+ */
+public final class MongoAsyncTodoStorage implements TodoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoAsyncTodoStorage.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final MongoClient client;
+    private final MongoCollection<Document> collection;
+    private final MongoCollection<Document> archive;
+    private final MongoAsyncOptions options;
+    private final TodoDocuments docs;
+
+    public MongoAsyncTodoStorage(String connectionString, String database, String collectionName,
+                                 MongoAsyncOptions options) {
+        this.options = options;
+        this.docs = new TodoDocuments(null);
+
+        try {
+            MongoClientSettings settings = MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(connectionString))
+                    .applyToConnectionPoolSettings(pool -> pool
+                            .maxSize(options.maxPoolSize())
+                            .minSize(options.minPoolSize())
+                            .maxWaitTime(options.maxWaitMillis(), TimeUnit.MILLISECONDS))
+                    .writeConcern(options.writeConcern())
+                    .build();
+
+            this.client = MongoClients.create(settings);
+            this.collection = client.getDatabase(database).getCollection(collectionName);
+            this.archive = client.getDatabase(database).getCollection(collectionName + "_archive");
+
+            Publishers.toList(collection.createIndexes(TodoDocuments.INDEXES)).join();
+
+            logger.info("Connected to MongoDB (async): {}/{}", database, collectionName);
+
+        } catch (Exception e) {
+            logger.error("MongoDB async initialization failed", e);
+            throw new RuntimeException("MongoDB async initialization failed", e);
+        }
+    }
+
+    private MongoAsyncTodoStorage(MongoAsyncTodoStorage parent, String tenant) {
+        this.client = parent.client;
+        this.collection = parent.collection;
+        this.archive = parent.archive;
+        this.options = parent.options;
+        this.docs = new TodoDocuments(tenant);
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new MongoAsyncTodoStorage(this, tenant);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    // ---- non-blocking API ----
+
+    public CompletableFuture<Todo> saveAsync(Todo todo) {
+        Document doc = docs.toDocument(todo);
+        return Publishers.first(collection.insertOne(doc)).thenApply(r -> {
+            todo.setId(doc.getObjectId("_id").toHexString());
+            logger.debug("Mongo async: saved {}", todo.getId());
+            return todo;
+        });
+    }
+
+    public CompletableFuture<List<Todo>> saveAllAsync(List<Todo> todos) {
+        List<Document> batch = new ArrayList<>(todos.size());
+        for (Todo todo : todos) batch.add(docs.toDocument(todo));
+
+        return Publishers.first(collection.insertMany(batch, new InsertManyOptions().ordered(false)))
+                .thenApply(r -> {
+                    for (int i = 0; i < todos.size(); i++) {
+                        todos.get(i).setId(batch.get(i).getObjectId("_id").toHexString());
+                    }
+                    return todos;
+                });
+    }
+
+    public CompletableFuture<Optional<Todo>> retrieveAsync(String id) {
+        return Publishers.first(collection.find(docs.byId(id)).first())
+                .thenApply(d -> Optional.ofNullable(d).map(TodoDocuments::map));
+    }
+
+    public CompletableFuture<Void> updateAsync(Todo todo) {
+        return Publishers.first(collection.updateOne(docs.byId(todo.getId()), TodoDocuments.update(todo)))
+                .thenAccept(result -> {
+                    if (result.getMatchedCount() == 0)
+                        throw new StorageException("Mongo update failed, ID not found");
+                });
+    }
+
+    public CompletableFuture<Void> deleteAsync(String id) {
+        return Publishers.first(collection.deleteOne(docs.byId(id))).thenAccept(r -> { });
+    }
+
+    public CompletableFuture<Boolean> updateAndGetPreviousCompletedAsync(Todo todo) {
+        return Publishers.first(collection.findOneAndUpdate(
+                        docs.byId(todo.getId()),
+                        TodoDocuments.update(todo),
+                        new FindOneAndUpdateOptions()
+                                .projection(TodoDocuments.COMPLETED_ONLY)
+                                .returnDocument(ReturnDocument.BEFORE)))
+                .thenApply(before -> {
+                    if (before == null)
+                        throw new StorageException("Mongo update failed, ID not found");
+                    return TodoDocuments.completedFlag(before);
+                });
+    }
+
+    public CompletableFuture<Optional<Boolean>> deleteAndGetCompletedAsync(String id) {
+        return Publishers.first(collection.findOneAndDelete(
+                        docs.byId(id),
+                        new FindOneAndDeleteOptions().projection(TodoDocuments.COMPLETED_ONLY)))
+                .thenApply(removed -> Optional.ofNullable(removed).map(TodoDocuments::completedFlag));
+    }
+
+    /**
+     * See {@link TodoDocuments#archiveWrites} for the purge protocol; here
+     * the per-id deletes are issued together.
+     */
+    public CompletableFuture<List<String>> purgeCompletedAsync(int limit, boolean archive) {
+        return Publishers.toList(collection.find(docs.completed(true)).sort(TodoDocuments.PURGE_ORDER).limit(limit))
+                .thenCompose(candidates -> {
+                    if (candidates.isEmpty()) return CompletableFuture.completedFuture(List.<String>of());
+
+                    CompletableFuture<?> archiveStep = archive
+                            ? Publishers.first(this.archive.bulkWrite(TodoDocuments.archiveWrites(candidates),
+                                    new BulkWriteOptions().ordered(false)))
+                            : CompletableFuture.completedFuture(null);
+
+                    return archiveStep.thenCompose(r -> deleteCandidates(TodoDocuments.ids(candidates), archive));
+                });
+    }
+
+    private CompletableFuture<List<String>> deleteCandidates(List<ObjectId> ids, boolean archive) {
+        List<CompletableFuture<Boolean>> deletes = new ArrayList<>(ids.size());
+        for (ObjectId id : ids) {
+            deletes.add(Publishers.first(collection.deleteOne(TodoDocuments.stillCompleted(id)))
+                    .thenApply(r -> r.getDeletedCount() == 1));
+        }
+
+        return CompletableFuture.allOf(deletes.toArray(CompletableFuture[]::new)).thenCompose(done -> {
+            List<ObjectId> purged = new ArrayList<>(ids.size());
+            List<ObjectId> kept = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) (deletes.get(i).join() ? purged : kept).add(ids.get(i));
+
+            CompletableFuture<?> unarchive = archive && !kept.isEmpty()
+                    ? Publishers.first(this.archive.deleteMany(Filters.in("_id", kept)))
+                    : CompletableFuture.completedFuture(null);
+            return unarchive.thenApply(r -> {
+                logger.debug("Mongo async: purged {} completed todos, {} changed concurrently (archive={})",
+                        purged.size(), kept.size(), archive);
+                return TodoDocuments.hex(purged);
+            });
+        });
+    }
+
+    public CompletableFuture<Long> countAsync() {
+        return Publishers.first(collection.countDocuments(docs.scoped()));
+    }
+
+    public CompletableFuture<Long> countByCompletedAsync(boolean completed) {
+        return Publishers.first(collection.countDocuments(docs.completed(completed)));
+    }
+
+    public CompletableFuture<TodoStats> statsAsync() {
+        return Publishers.toList(collection.aggregate(docs.statsPipeline())).thenApply(TodoDocuments::toStats);
+    }
+
+    // ---- TodoStorage ----
+
+    @Override
+    public void save(Todo todo) throws StorageException {
+        Publishers.await(saveAsync(todo), "Failed to save Mongo todo");
+    }
+
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        Publishers.await(saveAllAsync(todos), "Failed to save Mongo todo batch");
+    }
+
+    @Override
+    public Optional<Todo> retrieve(String id) throws StorageException {
+        try {
+            return Publishers.await(retrieveAsync(id), "Failed to retrieve Mongo todo");
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Failed to retrieve Mongo todo", e);
+        }
+    }
+
+    @Override
+    public List<Todo> retrieveAll() throws StorageException {
+        List<Todo> list = new ArrayList<>();
+        scan(list::add);
+        return list;
+    }
+
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        try {
+            scan(docs.scoped(), consumer);
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("Failed to scan Mongo todos", e);
+        }
+    }
+
+    /**
+     * Same {@code _id}-range partitioning as {@link MongoTodoStorage#parallelScan},
+     * each range read through its own bounded-demand subscriber.
+     */
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        int parts = options.parallelism();
+        List<ObjectId> splits = parts > 1
+                ? TodoDocuments.splitPoints(TodoDocuments.ids(Publishers.await(
+                        Publishers.toList(collection.aggregate(docs.samplePipeline(parts))),
+                        "Failed to plan parallel Mongo scan")), parts)
+                : List.of();
+
+        List<ScanPartition> partitions = new ArrayList<>(splits.size() + 1);
+        for (int i = 0; i <= splits.size(); i++) {
+            Bson range = docs.range(i == 0 ? null : splits.get(i - 1), i == splits.size() ? null : splits.get(i));
+            partitions.add(sink -> scan(range, sink));
+        }
+        return PartitionedScan.stream(partitions, options);
+    }
+
+    private void scan(Bson filter, Consumer<? super Todo> consumer) {
+        try (BlockingSubscriber<Document> results = new BlockingSubscriber<>(SCAN_BATCH_SIZE)) {
+            collection.find(filter).batchSize(SCAN_BATCH_SIZE).subscribe(results);
+            while (results.hasNext()) consumer.accept(TodoDocuments.map(results.next()));
+        }
+    }
+
+    @Override
+    public void update(Todo todo) throws StorageException {
+        try {
+            Publishers.await(updateAsync(todo), "Failed to update Mongo todo");
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Failed to update Mongo todo", e);
+        }
+    }
+
+    @Override
+    public void delete(String id) throws StorageException {
+        try {
+            Publishers.await(deleteAsync(id), "Failed to delete Mongo todo");
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Failed to delete Mongo todo", e);
+        }
+    }
+
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        try {
+            return Publishers.await(updateAndGetPreviousCompletedAsync(todo), "Failed to update Mongo todo");
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Failed to update Mongo todo", e);
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        try {
+            return Publishers.await(deleteAndGetCompletedAsync(id), "Failed to delete Mongo todo");
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Failed to delete Mongo todo", e);
+        }
+    }
+
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        return Publishers.await(purgeCompletedAsync(limit, archive), "Failed to purge completed Mongo todos");
+    }
+
+    @Override
+    public long count() throws StorageException {
+        return Publishers.await(countAsync(), "Failed to count Mongo todos");
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        return Publishers.await(countByCompletedAsync(completed), "Failed to count Mongo todos");
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        return Publishers.await(statsAsync(), "Failed to compute Mongo todo stats");
+    }
+
+    /**
+     * Pipelines unordered {@code insertMany} calls, keeping up to
+     * {@link MongoAsyncOptions#maxInFlight()} chunks outstanding while the
+     * next one is parsed. On failure the reported count covers acknowledged
+     * chunks only; an unordered insert that failed may still have written
+     * part of its own chunk.
+     */
+    @Override
+    public BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong committed = new AtomicLong();
+
+        try {
+            try {
+                List<Todo> chunk;
+                while (failure.get() == null && !(chunk = reader.nextChunk()).isEmpty()) {
+                    inFlight.acquire();
+                    int size = chunk.size();
+                    saveAllAsync(chunk).whenComplete((r, e) -> {
+                        if (e != null) failure.compareAndSet(null, e);
+                        else committed.addAndGet(size);
+                        inFlight.release();
+                    });
+                }
+            } catch (StorageException e) {
+                failure.compareAndSet(null, e);
+            }
+            // Let the chunks already sent finish, so the committed count is final
+            inFlight.acquire(options.maxInFlight());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted during Mongo bulk import after " + committed.get() + " rows", e);
+        }
+
+        if (failure.get() != null) {
+            throw new StorageException("Failed to bulk import todos after " + committed.get() + " rows",
+                    failure.get());
+        }
+        return new BulkImportResult(committed.get(), System.nanoTime() - start);
+    }
+}
@@ -1,23 +1,39 @@
 package com.example.storage.mongo;
 
 import com.example.model.Todo;
+import com.example.model.TodoStats;
 import com.example.storage.StorageException;
 import com.example.storage.TodoStorage;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.scan.PartitionedScan;
+import com.example.storage.scan.ScanPartition;
 import com.mongodb.client.*;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
 import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import static com.mongodb.client.model.Filters.eq;
 
 public final class MongoTodoStorage implements TodoStorage {
 
     private static final Logger logger = LoggerFactory.getLogger(MongoTodoStorage.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
 
     private final MongoClient client;
     private final MongoCollection<Document> collection;
+    private final MongoCollection<Document> archive;
+    private final TodoDocuments docs;
 
     public MongoTodoStorage(String connectionString, String database, String collectionName) {
 
@@ -25,6 +41,10 @@ public final class MongoTodoStorage implements TodoStorage {
             this.client = MongoClients.create(connectionString);
             MongoDatabase db = client.getDatabase(database);
             this.collection = db.getCollection(collectionName);
+            this.archive = db.getCollection(collectionName + "_archive");
+            this.docs = new TodoDocuments(null);
+
+            collection.createIndexes(TodoDocuments.INDEXES);
 
             logger.info("Connected to MongoDB: {}/{}", database, collectionName);
 
@@ -34,13 +54,27 @@ public final class MongoTodoStorage implements TodoStorage {
         }
     }
 
+    private MongoTodoStorage(MongoTodoStorage parent, String tenant) {
+        this.client = parent.client;
+        this.collection = parent.collection;
+        this.archive = parent.archive;
+        this.docs = new TodoDocuments(tenant);
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new MongoTodoStorage(this, tenant);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
     @Override
     public void save(Todo todo) throws StorageException {
         try {
-            Document doc = new Document()
-                    .append("title", todo.getTitle())
-                    .append("description", todo.getDescription())
-                    .append("completed", todo.isCompleted());
+            Document doc = docs.toDocument(todo);
 
             collection.insertOne(doc);
 
@@ -52,13 +86,33 @@ public final class MongoTodoStorage implements TodoStorage {
         }
     }
 
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        try {
+            List<Document> batch = new ArrayList<>(todos.size());
+            for (Todo todo : todos) {
+                batch.add(docs.toDocument(todo));
+            }
+
+            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+
+            for (int i = 0; i < todos.size(); i++) {
+                todos.get(i).setId(batch.get(i).getObjectId("_id").toHexString());
+            }
+            logger.debug("Mongo: saved batch of {}", todos.size());
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to save Mongo todo batch", e);
+        }
+    }
+
     @Override
     public Optional<Todo> retrieve(String id) throws StorageException {
         try {
-            Document d = collection.find(eq("_id", new org.bson.types.ObjectId(id))).first();
+            Document d = collection.find(docs.byId(id)).first();
             if (d == null) return Optional.empty();
 
-            return Optional.of(map(d));
+            return Optional.of(TodoDocuments.map(d));
 
         } catch (Exception e) {
             throw new StorageException("Failed to retrieve Mongo todo", e);
@@ -69,9 +123,9 @@ public final class MongoTodoStorage implements TodoStorage {
     public List<Todo> retrieveAll() throws StorageException {
         try {
             List<Todo> list = new ArrayList<>();
-            MongoCursor<Document> cursor = collection.find().iterator();
+            MongoCursor<Document> cursor = collection.find(docs.scoped()).iterator();
 
-            while (cursor.hasNext()) list.add(map(cursor.next()));
+            while (cursor.hasNext()) list.add(TodoDocuments.map(cursor.next()));
             return list;
 
         } catch (Exception e) {
@@ -80,16 +134,50 @@ public final class MongoTodoStorage implements TodoStorage {
     }
 
     @Override
-    public void update(Todo todo) throws StorageException {
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        try (MongoCursor<Document> cursor = collection.find(docs.scoped()).batchSize(SCAN_BATCH_SIZE).iterator()) {
+            while (cursor.hasNext()) consumer.accept(TodoDocuments.map(cursor.next()));
+        } catch (Exception e) {
+            throw new StorageException("Failed to scan Mongo todos", e);
+        }
+    }
+
+    /**
+     * Picks {@code _id} split points from a {@code $sample} of the collection
+     * and scans each resulting {@code _id} range on its own cursor.
+     */
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        List<ObjectId> splits = List.of();
         try {
-            Document update = new Document("$set", new Document()
-                    .append("title", todo.getTitle())
-                    .append("description", todo.getDescription())
-                    .append("completed", todo.isCompleted()));
+            int parts = options.parallelism();
+            if (parts > 1) {
+                List<ObjectId> sample = new ArrayList<>();
+                for (Document d : collection.aggregate(docs.samplePipeline(parts))) sample.add(d.getObjectId("_id"));
+                splits = TodoDocuments.splitPoints(sample, parts);
+            }
+        } catch (Exception e) {
+            throw new StorageException("Failed to plan parallel Mongo scan", e);
+        }
+
+        List<ScanPartition> partitions = new ArrayList<>(splits.size() + 1);
+        for (int i = 0; i <= splits.size(); i++) {
+            Bson range = docs.range(i == 0 ? null : splits.get(i - 1), i == splits.size() ? null : splits.get(i));
+            partitions.add(sink -> {
+                try (MongoCursor<Document> cursor = collection.find(range).batchSize(SCAN_BATCH_SIZE).iterator()) {
+                    while (cursor.hasNext()) sink.accept(TodoDocuments.map(cursor.next()));
+                }
+            });
+        }
+        return PartitionedScan.stream(partitions, options);
+    }
 
+    @Override
+    public void update(Todo todo) throws StorageException {
+        try {
             var result = collection.updateOne(
-                    eq("_id", new org.bson.types.ObjectId(todo.getId())),
-                    update
+                    docs.byId(todo.getId()),
+                    TodoDocuments.update(todo)
             );
 
             if (result.getMatchedCount() == 0)
@@ -103,18 +191,102 @@ public final class MongoTodoStorage implements TodoStorage {
     @Override
     public void delete(String id) throws StorageException {
         try {
-            collection.deleteOne(eq("_id", new org.bson.types.ObjectId(id)));
+            collection.deleteOne(docs.byId(id));
         } catch (Exception e) {
             throw new StorageException("Failed to delete Mongo todo", e);
         }
     }
 
-    private Todo map(Document d) {
-        return new Todo(
-                d.getObjectId("_id").toHexString(),
-                d.getString("title"),
-                d.getString("description"),
-                d.getBoolean("completed")
-        );
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        try {
+            Document before = collection.findOneAndUpdate(
+                    docs.byId(todo.getId()),
+                    TodoDocuments.update(todo),
+                    new FindOneAndUpdateOptions()
+                            .projection(TodoDocuments.COMPLETED_ONLY)
+                            .returnDocument(ReturnDocument.BEFORE));
+
+            if (before == null)
+                throw new StorageException("Mongo update failed, ID not found");
+            return TodoDocuments.completedFlag(before);
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to update Mongo todo", e);
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        try {
+            Document removed = collection.findOneAndDelete(
+                    docs.byId(id),
+                    new FindOneAndDeleteOptions().projection(TodoDocuments.COMPLETED_ONLY));
+            return Optional.ofNullable(removed).map(TodoDocuments::completedFlag);
+        } catch (Exception e) {
+            throw new StorageException("Failed to delete Mongo todo", e);
+        }
+    }
+
+    /**
+     * See {@link TodoDocuments#archiveWrites} for the purge protocol. The
+     * per-id deletes cost one round trip each; use
+     * {@link MongoAsyncTodoStorage} to have them in flight together.
+     */
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        try {
+            List<Document> candidates = collection.find(docs.completed(true))
+                    .sort(TodoDocuments.PURGE_ORDER)
+                    .limit(limit)
+                    .into(new ArrayList<>());
+            if (candidates.isEmpty()) return List.of();
+
+            if (archive) {
+                this.archive.bulkWrite(TodoDocuments.archiveWrites(candidates), new BulkWriteOptions().ordered(false));
+            }
+
+            List<ObjectId> purged = new ArrayList<>(candidates.size());
+            List<ObjectId> kept = new ArrayList<>();
+            for (ObjectId id : TodoDocuments.ids(candidates)) {
+                boolean deleted = collection.deleteOne(TodoDocuments.stillCompleted(id)).getDeletedCount() == 1;
+                (deleted ? purged : kept).add(id);
+            }
+            if (archive && !kept.isEmpty()) this.archive.deleteMany(Filters.in("_id", kept));
+
+            logger.debug("Mongo: purged {} completed todos, {} changed concurrently (archive={})",
+                    purged.size(), kept.size(), archive);
+            return TodoDocuments.hex(purged);
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to purge completed Mongo todos", e);
+        }
+    }
+
+    @Override
+    public long count() throws StorageException {
+        try {
+            return collection.countDocuments(docs.scoped());
+        } catch (Exception e) {
+            throw new StorageException("Failed to count Mongo todos", e);
+        }
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        try {
+            return collection.countDocuments(docs.completed(completed));
+        } catch (Exception e) {
+            throw new StorageException("Failed to count Mongo todos", e);
+        }
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        try {
+            return TodoDocuments.toStats(collection.aggregate(docs.statsPipeline()));
+        } catch (Exception e) {
+            throw new StorageException("Failed to compute Mongo todo stats", e);
+        }
     }
 }
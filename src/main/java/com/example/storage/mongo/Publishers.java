@@ -0,0 +1,97 @@
+package com.example.storage.mongo;
+
+import com.example.storage.StorageException;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Minimal bridges from reactive-streams publishers to futures, so the async
+ * storage does not need a reactive library on top of the driver.
+ */
+final class Publishers {
+
+    private Publishers() {}
+
+    /**
+     * Completes with the first element, or {@code null} if the publisher completes empty.
+     */
+    static <T> CompletableFuture<T> first(Publisher<T> publisher) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<T>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(T item) {
+                subscription.cancel();
+                future.complete(item);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Collects every element. Only for publishers known to be small, such as aggregation summaries.
+     */
+    static <T> CompletableFuture<List<T>> toList(Publisher<T> publisher) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        List<T> items = new ArrayList<>();
+        publisher.subscribe(new Subscriber<T>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(items);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Waits for the future and rethrows its failure as a {@link StorageException}.
+     */
+    static <T> T await(CompletableFuture<T> future, String message) throws StorageException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StorageException se) throw se;
+            throw new StorageException(message, e.getCause());
+        } catch (Exception e) {
+            throw new StorageException(message, e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.storage.mongo;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * Document shape, tenant filters and purge plan shared by the sync and async
+ * Mongo storages, so both drivers read and write exactly the same documents.
+ * One instance per tenant view; {@code tenant} is null for the unscoped view.
+ */
+final class TodoDocuments {
+
+    /** (owner, _id) also works as a shard key that keeps each tenant's todos together. */
+    static final List<IndexModel> INDEXES = List.of(
+            new IndexModel(Indexes.ascending("owner", "_id")),
+            new IndexModel(Indexes.ascending("owner", "completed", "_id")));
+
+    static final Bson COMPLETED_ONLY = Projections.include("completed");
+    static final int SAMPLES_PER_PARTITION = 16;
+    static final Bson PURGE_ORDER = Sorts.ascending("_id");
+
+    private final String tenant;
+
+    TodoDocuments(String tenant) {
+        this.tenant = tenant;
+    }
+
+    /**
+     * Restricts a filter to the current tenant, if any.
+     */
+    Bson scoped(Bson filter) {
+        return tenant == null ? filter : Filters.and(filter, eq("owner", tenant));
+    }
+
+    Bson scoped() {
+        return tenant == null ? new Document() : eq("owner", tenant);
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} if {@code id} is not an ObjectId.
+     */
+    Bson byId(String id) {
+        return scoped(eq("_id", new ObjectId(id)));
+    }
+
+    Bson completed(boolean completed) {
+        return scoped(eq("completed", completed));
+    }
+
+    Document toDocument(Todo todo) {
+        if (tenant != null) todo.setOwner(tenant);
+        return new Document()
+                .append("title", todo.getTitle())
+                .append("description", todo.getDescription())
+                .append("completed", todo.isCompleted())
+                .append("owner", todo.getOwner());
+    }
+
+    /**
+     * The {@code $set} for an update; the owner is never changed.
+     */
+    static Document update(Todo todo) {
+        return new Document("$set", new Document()
+                .append("title", todo.getTitle())
+                .append("description", todo.getDescription())
+                .append("completed", todo.isCompleted()));
+    }
+
+    static Todo map(Document d) {
+        return new Todo(
+                d.getObjectId("_id").toHexString(),
+                d.getString("title"),
+                d.getString("description"),
+                d.getBoolean("completed"),
+                d.getString("owner")
+        );
+    }
+
+    static boolean completedFlag(Document d) {
+        return d.getBoolean("completed", false);
+    }
+
+    /**
+     * Random {@code _id}s from this tenant's todos, from which
+     * {@link #splitPoints} picks range boundaries for a parallel scan.
+     */
+    List<Bson> samplePipeline(int parts) {
+        return List.of(
+                Aggregates.match(scoped()),
+                Aggregates.sample(parts * SAMPLES_PER_PARTITION),
+                Aggregates.project(new Document("_id", 1)));
+    }
+
+    /**
+     * Up to {@code parts - 1} distinct ascending split points taken at even
+     * positions of the sorted sample.
+     */
+    static List<ObjectId> splitPoints(List<ObjectId> sample, int parts) {
+        List<ObjectId> sorted = new ArrayList<>(sample);
+        Collections.sort(sorted);
+
+        List<ObjectId> splits = new ArrayList<>();
+        for (int i = 1; i < parts && !sorted.isEmpty(); i++) {
+            ObjectId split = sorted.get(i * sorted.size() / parts);
+            if (splits.isEmpty() || !splits.get(splits.size() - 1).equals(split)) splits.add(split);
+        }
+        return splits;
+    }
+
+    /**
+     * This tenant's todos with {@code from <= _id < to}; a null bound is open.
+     */
+    Bson range(ObjectId from, ObjectId to) {
+        List<Bson> bounds = new ArrayList<>(3);
+        bounds.add(scoped());
+        if (from != null) bounds.add(Filters.gte("_id", from));
+        if (to != null) bounds.add(Filters.lt("_id", to));
+        return Filters.and(bounds);
+    }
+
+    List<Bson> statsPipeline() {
+        return List.of(
+                Aggregates.match(scoped()),
+                Aggregates.group("$completed", Accumulators.sum("count", 1)));
+    }
+
+    static TodoStats toStats(Iterable<Document> groups) {
+        long total = 0;
+        long completed = 0;
+        for (Document d : groups) {
+            long n = ((Number) d.get("count")).longValue();
+            total += n;
+            if (Boolean.TRUE.equals(d.get("_id"))) completed += n;
+        }
+        return new TodoStats(total, completed);
+    }
+
+    /**
+     * A purge archives its candidates first, then deletes each one on its
+     * own so the result says exactly which deletes this call performed;
+     * candidates a concurrent writer reopened or deleted in between are
+     * removed from the archive again. Archive writes are upserts keyed by {@code _id}, so a chunk that
+     * was archived but not yet deleted when a previous run failed is simply
+     * rewritten on retry.
+     */
+    static List<WriteModel<Document>> archiveWrites(List<Document> docs) {
+        Date now = new Date();
+        List<WriteModel<Document>> writes = new ArrayList<>(docs.size());
+        for (Document d : docs) {
+            writes.add(new ReplaceOneModel<>(eq("_id", d.get("_id")),
+                    new Document(d).append("archivedAt", now), new ReplaceOptions().upsert(true)));
+        }
+        return writes;
+    }
+
+    static List<ObjectId> ids(List<Document> docs) {
+        List<ObjectId> ids = new ArrayList<>(docs.size());
+        for (Document d : docs) ids.add(d.getObjectId("_id"));
+        return ids;
+    }
+
+    /**
+     * Matches one purge candidate only if it is still completed, so a todo
+     * reopened since the candidate query is left alone.
+     */
+    static Bson stillCompleted(ObjectId id) {
+        return Filters.and(eq("_id", id), eq("completed", true));
+    }
+
+    static List<String> hex(List<ObjectId> ids) {
+        return ids.stream().map(ObjectId::toHexString).toList();
+    }
+}
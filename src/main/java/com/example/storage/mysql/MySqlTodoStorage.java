@@ -1,33 +1,75 @@
 package com.example.storage.mysql;
 
 import com.example.model.Todo;
+import com.example.model.TodoStats;
 import com.example.storage.StorageException;
 import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.CsvEncoder;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.IdRange;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.scan.PartitionedScan;
+import com.example.storage.scan.ScanPartition;
+import com.mysql.cj.jdbc.JdbcStatement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public final class MySqlTodoStorage implements TodoStorage {
     private static final Logger logger = LoggerFactory.getLogger(MySqlTodoStorage.class);
+    private static final int SCAN_FETCH_SIZE = 1000;
+    private static final int CONDITIONAL_WRITE_ATTEMPTS = 3;
+    private static final String ARCHIVE_TABLE_DDL = """
+            CREATE TABLE IF NOT EXISTS todos_archive (
+                id INT PRIMARY KEY,
+                title VARCHAR(255),
+                description TEXT,
+                completed BOOLEAN,
+                owner VARCHAR(64),
+                archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+    private static final int MYSQL_DUPLICATE_KEY_NAME = 1061;
+    private static final int H2_INDEX_ALREADY_EXISTS = 42111;
     private final String jdbcUrl;
     private final String user;
     private final String password;
+    private final String tenant;
 
     public MySqlTodoStorage(String jdbcUrl, String user, String password) {
         this.jdbcUrl = jdbcUrl;
         this.user = user;
         this.password = password;
+        this.tenant = null;
 
         initializeDatabase();
     }
 
+    private MySqlTodoStorage(MySqlTodoStorage parent, String tenant) {
+        this.jdbcUrl = parent.jdbcUrl;
+        this.user = parent.user;
+        this.password = parent.password;
+        this.tenant = tenant;
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new MySqlTodoStorage(this, tenant);
+    }
+
     private void initializeDatabase() {
     try {
-        if (jdbcUrl.startsWith("jdbc:h2:")) {
+        if (isH2()) {
             try (Connection conn = DriverManager.getConnection(jdbcUrl, user, password);
                  Statement stmt = conn.createStatement()) {
 
@@ -36,9 +78,12 @@ public final class MySqlTodoStorage implements TodoStorage {
                 id INT AUTO_INCREMENT PRIMARY KEY,
                 title VARCHAR(255),
                 description TEXT,
-                completed BOOLEAN
+                completed BOOLEAN,
+                owner VARCHAR(64)
             );
         """);
+                stmt.execute(ARCHIVE_TABLE_DDL);
+                migrateTenantSchema(stmt);
             }
             return;
         }
@@ -59,10 +104,14 @@ public final class MySqlTodoStorage implements TodoStorage {
                     id INT AUTO_INCREMENT PRIMARY KEY,
                     title VARCHAR(255),
                     description TEXT,
-                    completed BOOLEAN
+                    completed BOOLEAN,
+                    owner VARCHAR(64)
                 );
                     """);
 
+            stmt.execute(ARCHIVE_TABLE_DDL);
+            migrateTenantSchema(stmt);
+
             logger.info("Table 'todos' verified/created.");
         }
 
@@ -71,13 +120,61 @@ public final class MySqlTodoStorage implements TodoStorage {
     }
 }
 
+    /**
+     * Adds the owner column to tables created before tenants existed, the
+     * composite indexes that keep tenant-scoped queries inside one owner's rows,
+     * and the {@code (completed, id)} index that lets an unscoped purge lock
+     * only the completed rows it takes.
+     */
+    private void migrateTenantSchema(Statement stmt) throws SQLException {
+        for (String table : List.of("todos", "todos_archive")) {
+            try {
+                stmt.executeQuery("SELECT owner FROM " + table + " WHERE 1 = 0").close();
+            } catch (SQLException e) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN owner VARCHAR(64)");
+                logger.info("Added owner column to '{}'", table);
+            }
+        }
+
+        createIndex(stmt, "idx_todos_owner_id", "owner, id");
+        createIndex(stmt, "idx_todos_owner_completed", "owner, completed, id");
+        createIndex(stmt, "idx_todos_completed_id", "completed, id");
+    }
+
+    private void createIndex(Statement stmt, String name, String columns) throws SQLException {
+        try {
+            stmt.execute("CREATE INDEX " + name + " ON todos (" + columns + ")");
+        } catch (SQLException e) {
+            if (e.getErrorCode() != MYSQL_DUPLICATE_KEY_NAME && e.getErrorCode() != H2_INDEX_ALREADY_EXISTS) throw e;
+        }
+    }
+
+    /** {@code " WHERE owner = ?"} when scoped to a tenant, for queries with no other condition. */
+    private String tenantWhere() {
+        return tenant == null ? "" : " WHERE owner = ?";
+    }
+
+    /** {@code " AND owner = ?"} when scoped to a tenant; always the last condition in the query. */
+    private String tenantAnd() {
+        return tenant == null ? "" : " AND owner = ?";
+    }
+
+    private void bindTenant(PreparedStatement ps, int index) throws SQLException {
+        if (tenant != null) ps.setString(index, tenant);
+    }
+
+    private boolean isH2() {
+        return jdbcUrl.startsWith("jdbc:h2:");
+    }
+
     private Connection getConn() throws SQLException {
         return DriverManager.getConnection(jdbcUrl, user, password);
     }
 
 @Override
 public void save(Todo todo) throws StorageException {
-    final String sql = "INSERT INTO todos (title, description, completed) VALUES (?, ?, ?)";
+    final String sql = "INSERT INTO todos (title, description, completed, owner) VALUES (?, ?, ?, ?)";
+    if (tenant != null) todo.setOwner(tenant);
 
     try (Connection conn = getConn();
          PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -85,6 +182,7 @@ public void save(Todo todo) throws StorageException {
         ps.setString(1, todo.getTitle());
         ps.setString(2, todo.getDescription());
         ps.setBoolean(3, todo.isCompleted());
+        ps.setString(4, todo.getOwner());
         ps.executeUpdate();
 
         try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -101,11 +199,94 @@ public void save(Todo todo) throws StorageException {
 }
 
 
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        final String sql = "INSERT INTO todos (title, description, completed, owner) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = getConn()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Todo todo : todos) {
+                    if (tenant != null) todo.setOwner(tenant);
+                    ps.setString(1, todo.getTitle());
+                    ps.setString(2, todo.getDescription());
+                    ps.setBoolean(3, todo.isCompleted());
+                    ps.setString(4, todo.getOwner());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < todos.size() && rs.next(); i++) {
+                        todos.get(i).setId(rs.getInt(1) + "");
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            logger.debug("Saved batch of {} todos", todos.size());
+
+        } catch (SQLException e) {
+            throw new StorageException("Failed to save todo batch", e);
+        }
+    }
+
+    /**
+     * Streams each chunk through {@code LOAD DATA LOCAL INFILE}, one
+     * autocommitted statement per chunk. H2 has no equivalent, so H2 URLs
+     * fall back to batched inserts.
+     */
+    @Override
+    public BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        if (isH2()) {
+            return TodoStorage.super.bulkImport(reader);
+        }
+
+        final String sql = """
+                LOAD DATA LOCAL INFILE 'todos.csv' INTO TABLE todos
+                CHARACTER SET utf8mb4
+                FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '"' ESCAPED BY ''
+                LINES TERMINATED BY '\\n'
+                (title, description, completed, owner)
+                """;
+        CsvEncoder encoder = new CsvEncoder("NULL");
+        long start = System.nanoTime();
+        long rows = 0;
+
+        Properties info = new Properties();
+        info.setProperty("user", user);
+        info.setProperty("password", password);
+        info.setProperty("allowLoadLocalInfile", "true");
+
+        try (Connection c = DriverManager.getConnection(jdbcUrl, info);
+             Statement stmt = c.createStatement()) {
+
+            JdbcStatement mysqlStmt = stmt.unwrap(JdbcStatement.class);
+            List<Todo> chunk;
+            while (!(chunk = reader.nextChunk()).isEmpty()) {
+                if (tenant != null) chunk.forEach(t -> t.setOwner(tenant));
+                mysqlStmt.setLocalInfileInputStream(new ByteArrayInputStream(encoder.encode(chunk)));
+                stmt.execute(sql);
+                rows += stmt.getUpdateCount();
+                logger.debug("LOAD DATA loaded {} rows so far", rows);
+            }
+
+        } catch (SQLException | StorageException e) {
+            throw new StorageException("Failed to bulk import todos after " + rows + " rows", e);
+        }
+
+        return new BulkImportResult(rows, System.nanoTime() - start);
+    }
+
     @Override
     public Optional<Todo> retrieve(String id) throws StorageException {
-        final String sql = "SELECT id, title, description, completed FROM todos WHERE id = ?";
+        final String sql = "SELECT id, title, description, completed, owner FROM todos WHERE id = ?" + tenantAnd();
         try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, id);
+            bindTenant(ps, 2);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     Todo t = mapRow(rs);
@@ -120,12 +301,14 @@ public void save(Todo todo) throws StorageException {
 
     @Override
     public List<Todo> retrieveAll() throws StorageException {
-        final String sql = "SELECT id, title, description, completed FROM todos";
+        final String sql = "SELECT id, title, description, completed, owner FROM todos" + tenantWhere();
         List<Todo> list = new ArrayList<>();
-        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                list.add(mapRow(rs));
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            bindTenant(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
             }
             return list;
         } catch (SQLException e) {
@@ -133,14 +316,87 @@ public void save(Todo todo) throws StorageException {
         }
     }
 
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        final String sql = "SELECT id, title, description, completed, owner FROM todos" + tenantWhere();
+        try (Connection c = getConn()) {
+            streamQuery(c, sql, consumer, ps -> { });
+        } catch (SQLException e) {
+            throw new StorageException("Failed to scan todos", e);
+        }
+    }
+
+    /**
+     * Splits {@code [MIN(id), MAX(id)]} into equal-width ranges, each streamed on its own connection.
+     */
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        final String boundsSql = "SELECT MIN(id), MAX(id) FROM todos" + tenantWhere();
+        final String rangeSql = "SELECT id, title, description, completed, owner FROM todos WHERE id BETWEEN ? AND ?"
+                + tenantAnd();
+
+        List<IdRange> ranges;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(boundsSql)) {
+            bindTenant(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long min = rs.getLong(1);
+                if (rs.wasNull()) return Stream.empty();
+                ranges = IdRange.split(min, rs.getLong(2), options.parallelism());
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to plan parallel scan", e);
+        }
+
+        List<ScanPartition> partitions = new ArrayList<>(ranges.size());
+        for (IdRange range : ranges) {
+            partitions.add(sink -> {
+                try (Connection c = getConn()) {
+                    // A streaming result set ignores interrupts and drains the rest of the range
+                    // on close, so closing the scan early kills the query instead
+                    streamQuery(c, rangeSql, sink, ps -> sink.onCancel(() -> cancel(ps)),
+                            range.from(), range.to());
+                }
+            });
+        }
+        return PartitionedScan.stream(partitions, options);
+    }
+
+    private void streamQuery(Connection c, String sql, Consumer<? super Todo> consumer,
+                             Consumer<Statement> prepared, long... params) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            prepared.accept(ps);
+            // Connector/J only streams row-by-row when the fetch size is Integer.MIN_VALUE
+            ps.setFetchSize(isH2() ? SCAN_FETCH_SIZE : Integer.MIN_VALUE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setLong(i + 1, params[i]);
+            }
+            bindTenant(ps, params.length + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapRow(rs));
+                }
+            }
+        }
+    }
+
+    private static void cancel(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            logger.debug("Failed to cancel scan query", e);
+        }
+    }
+
     @Override
     public void update(Todo todo) throws StorageException {
-        final String sql = "UPDATE todos SET title = ?, description = ?, completed = ? WHERE id = ?";
+        final String sql = "UPDATE todos SET title = ?, description = ?, completed = ? WHERE id = ?" + tenantAnd();
         try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, todo.getTitle());
             ps.setString(2, todo.getDescription());
             ps.setBoolean(3, todo.isCompleted());
             ps.setString(4, todo.getId());
+            bindTenant(ps, 5);
             int affected = ps.executeUpdate();
             if (affected == 0) {
                 throw new StorageException("No todo updated, id not found: " + todo.getId());
@@ -153,9 +409,10 @@ public void save(Todo todo) throws StorageException {
 
     @Override
     public void delete(String id) throws StorageException {
-        final String sql = "DELETE FROM todos WHERE id = ?";
+        final String sql = "DELETE FROM todos WHERE id = ?" + tenantAnd();
         try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, id);
+            bindTenant(ps, 2);
             ps.executeUpdate();
             logger.debug("Deleted todo {}", id);
         } catch (SQLException e) {
@@ -163,12 +420,174 @@ public void save(Todo todo) throws StorageException {
         }
     }
 
+    /**
+     * MySQL has no {@code UPDATE ... RETURNING}, so the write is made
+     * conditional on the current flag: whichever variant matches the row
+     * tells us what it was. If neither matches, the row is gone or flipped
+     * between the two statements, and the pair is retried. A NULL flag, as
+     * left by older or external writers, counts as not completed.
+     */
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        final String sql = "UPDATE todos SET title = ?, description = ?, completed = ? "
+                + "WHERE id = ? AND COALESCE(completed, FALSE) = ?" + tenantAnd();
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int attempt = 0; attempt < CONDITIONAL_WRITE_ATTEMPTS; attempt++) {
+                for (boolean previous : new boolean[] {!todo.isCompleted(), todo.isCompleted()}) {
+                    ps.setString(1, todo.getTitle());
+                    ps.setString(2, todo.getDescription());
+                    ps.setBoolean(3, todo.isCompleted());
+                    ps.setString(4, todo.getId());
+                    ps.setBoolean(5, previous);
+                    bindTenant(ps, 6);
+                    if (ps.executeUpdate() > 0) return previous;
+                }
+                if (!exists(c, todo.getId())) {
+                    throw new StorageException("No todo updated, id not found: " + todo.getId());
+                }
+            }
+            throw new StorageException("Todo " + todo.getId() + " kept changing during update");
+        } catch (SQLException e) {
+            throw new StorageException("Failed to update todo", e);
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        final String sql = "DELETE FROM todos WHERE id = ? AND COALESCE(completed, FALSE) = ?" + tenantAnd();
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int attempt = 0; attempt < CONDITIONAL_WRITE_ATTEMPTS; attempt++) {
+                for (boolean completed : new boolean[] {true, false}) {
+                    ps.setString(1, id);
+                    ps.setBoolean(2, completed);
+                    bindTenant(ps, 3);
+                    if (ps.executeUpdate() > 0) return Optional.of(completed);
+                }
+                if (!exists(c, id)) return Optional.empty();
+            }
+            throw new StorageException("Todo " + id + " kept changing during delete");
+        } catch (SQLException e) {
+            throw new StorageException("Failed to delete todo", e);
+        }
+    }
+
+    private boolean exists(Connection c, String id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT 1 FROM todos WHERE id = ?" + tenantAnd())) {
+            ps.setString(1, id);
+            bindTenant(ps, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Picks the chunk through the {@code (completed, id)} or
+     * {@code (owner, completed, id)} index with {@code FOR UPDATE SKIP LOCKED}
+     * (MySQL 8), so only the chosen completed rows are locked and rows held
+     * by writers or another purger are passed over instead of waited on.
+     */
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        final String selectSql = "SELECT id FROM todos WHERE completed = TRUE" + tenantAnd()
+                + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+        try (Connection c = getConn()) {
+            c.setAutoCommit(false);
+            try {
+                List<String> ids = new ArrayList<>(limit);
+                try (PreparedStatement ps = c.prepareStatement(selectSql)) {
+                    bindTenant(ps, 1);
+                    ps.setInt(tenant == null ? 1 : 2, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) ids.add(rs.getString(1));
+                    }
+                }
+
+                if (!ids.isEmpty()) {
+                    String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                    if (archive) {
+                        executeForIds(c, "INSERT INTO todos_archive (id, title, description, completed, owner) "
+                                + "SELECT id, title, description, completed, owner FROM todos WHERE id IN (" + in + ")", ids);
+                    }
+                    executeForIds(c, "DELETE FROM todos WHERE id IN (" + in + ")", ids);
+                }
+
+                c.commit();
+                logger.debug("Purged {} completed todos (archive={})", ids.size(), archive);
+                return ids;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to purge completed todos", e);
+        }
+    }
+
+    private static void executeForIds(Connection c, String sql, List<String> ids) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setString(i + 1, ids.get(i));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public long count() throws StorageException {
+        final String sql = "SELECT COUNT(*) FROM todos" + tenantWhere();
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            bindTenant(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count todos", e);
+        }
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        final String sql = "SELECT COUNT(*) FROM todos WHERE COALESCE(completed, FALSE) = ?" + tenantAnd();
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setBoolean(1, completed);
+            bindTenant(ps, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count todos", e);
+        }
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        final String sql = "SELECT completed, COUNT(*) FROM todos" + tenantWhere() + " GROUP BY completed";
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            bindTenant(ps, 1);
+            long total = 0;
+            long completed = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long n = rs.getLong(2);
+                    total += n;
+                    if (rs.getBoolean(1)) completed += n;
+                }
+            }
+            return new TodoStats(total, completed);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to compute todo stats", e);
+        }
+    }
+
     private Todo mapRow(ResultSet rs) throws SQLException {
         return new Todo(
                 rs.getString("id"),
                 rs.getString("title"),
                 rs.getString("description"),
-                rs.getBoolean("completed")
+                rs.getBoolean("completed"),
+                rs.getString("owner")
         );
     }
 }
@@ -1,8 +1,18 @@
 package com.example.storage.postgres;
 
 import com.example.model.Todo;
+import com.example.model.TodoStats;
 import com.example.storage.StorageException;
 import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.CsvEncoder;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.IdRange;
+import com.example.storage.scan.ParallelScanOptions;
+import com.example.storage.scan.PartitionedScan;
+import com.example.storage.scan.ScanPartition;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,21 +20,38 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public final class PostgresTodoStorage implements TodoStorage {
 
     private static final Logger logger = LoggerFactory.getLogger(PostgresTodoStorage.class);
+    private static final int SCAN_FETCH_SIZE = 1000;
     private final String jdbcUrl;
     private final String user;
     private final String password;
+    private final String tenant;
 
     public PostgresTodoStorage(String jdbcUrl, String user, String password) {
         this.jdbcUrl = jdbcUrl;
         this.user = user;
         this.password = password;
+        this.tenant = null;
         initialize();
     }
 
+    private PostgresTodoStorage(PostgresTodoStorage parent, String tenant) {
+        this.jdbcUrl = parent.jdbcUrl;
+        this.user = parent.user;
+        this.password = parent.password;
+        this.tenant = tenant;
+    }
+
+    @Override
+    public TodoStorage forTenant(String tenant) {
+        return new PostgresTodoStorage(this, tenant);
+    }
+
     private void initialize() {
         try (Connection conn = DriverManager.getConnection(jdbcUrl, user, password);
              Statement stmt = conn.createStatement()) {
@@ -34,10 +61,32 @@ public final class PostgresTodoStorage implements TodoStorage {
                     id SERIAL PRIMARY KEY,
                     title VARCHAR(255),
                     description TEXT,
-                    completed BOOLEAN
+                    completed BOOLEAN,
+                    owner VARCHAR(64)
                 );
             """);
 
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS todos_archive (
+                    id INTEGER PRIMARY KEY,
+                    title VARCHAR(255),
+                    description TEXT,
+                    completed BOOLEAN,
+                    owner VARCHAR(64),
+                    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                );
+            """);
+
+            // Tables created before tenants existed
+            stmt.execute("ALTER TABLE todos ADD COLUMN IF NOT EXISTS owner VARCHAR(64)");
+            stmt.execute("ALTER TABLE todos_archive ADD COLUMN IF NOT EXISTS owner VARCHAR(64)");
+
+            // Keep tenant-scoped lookups, scans and aggregates inside one owner's rows
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_todos_owner_id ON todos (owner, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_todos_owner_completed ON todos (owner, completed, id)");
+            // Lets an unscoped purge walk the completed rows in id order instead of scanning the table
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_todos_completed_id ON todos (id) WHERE completed");
+
             logger.info("PostgreSQL todos table verified/created.");
         } catch (Exception e) {
             logger.error("Failed to initialize PostgreSQL DB", e);
@@ -45,13 +94,28 @@ public final class PostgresTodoStorage implements TodoStorage {
         }
     }
 
+    /** {@code " WHERE owner=?"} when scoped to a tenant, for queries with no other condition. */
+    private String tenantWhere() {
+        return tenant == null ? "" : " WHERE owner=?";
+    }
+
+    /** {@code " AND owner=?"} when scoped to a tenant; always the last condition in the query. */
+    private String tenantAnd() {
+        return tenant == null ? "" : " AND owner=?";
+    }
+
+    private void bindTenant(PreparedStatement ps, int index) throws SQLException {
+        if (tenant != null) ps.setString(index, tenant);
+    }
+
     private Connection getConn() throws SQLException {
         return DriverManager.getConnection(jdbcUrl, user, password);
     }
 
     @Override
     public void save(Todo todo) throws StorageException {
-        String sql = "INSERT INTO todos(title,description,completed) VALUES(?,?,?) RETURNING id";
+        String sql = "INSERT INTO todos(title,description,completed,owner) VALUES(?,?,?,?) RETURNING id";
+        if (tenant != null) todo.setOwner(tenant);
 
         try (Connection conn = getConn();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -59,6 +123,7 @@ public final class PostgresTodoStorage implements TodoStorage {
             ps.setString(1, todo.getTitle());
             ps.setString(2, todo.getDescription());
             ps.setBoolean(3, todo.isCompleted());
+            ps.setString(4, todo.getOwner());
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -71,14 +136,89 @@ public final class PostgresTodoStorage implements TodoStorage {
         }
     }
 
+    @Override
+    public void saveAll(List<Todo> todos) throws StorageException {
+        String sql = "INSERT INTO todos(title,description,completed,owner) VALUES(?,?,?,?)";
+
+        try (Connection conn = getConn()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, new String[] {"id"})) {
+                for (Todo todo : todos) {
+                    if (tenant != null) todo.setOwner(tenant);
+                    ps.setString(1, todo.getTitle());
+                    ps.setString(2, todo.getDescription());
+                    ps.setBoolean(3, todo.isCompleted());
+                    ps.setString(4, todo.getOwner());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < todos.size() && rs.next(); i++) {
+                        todos.get(i).setId(String.valueOf(rs.getInt(1)));
+                    }
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to save batch", e);
+        }
+    }
+
+    /**
+     * Streams every chunk into a single {@code COPY ... FROM STDIN}, so unlike
+     * the chunked default a failure leaves nothing imported. Connections
+     * that are not pgjdbc (e.g. H2 in tests) fall back to batched inserts.
+     */
+    @Override
+    public BulkImportResult bulkImport(TodoRecordReader reader) throws StorageException {
+        String sql = "COPY todos(title,description,completed,owner) FROM STDIN WITH (FORMAT csv)";
+        CsvEncoder encoder = new CsvEncoder("");
+        long start = System.nanoTime();
+
+        try (Connection conn = getConn()) {
+            if (!conn.isWrapperFor(PGConnection.class)) {
+                return TodoStorage.super.bulkImport(reader);
+            }
+
+            CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                List<Todo> chunk;
+                while (!(chunk = reader.nextChunk()).isEmpty()) {
+                    if (tenant != null) chunk.forEach(t -> t.setOwner(tenant));
+                    byte[] bytes = encoder.encode(chunk);
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                }
+                long rows = copy.endCopy();
+                return new BulkImportResult(rows, System.nanoTime() - start);
+            } catch (Exception e) {
+                // A single COPY either loads every row or none of them
+                throw new StorageException("Failed to bulk import todos after 0 rows", e);
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("Failed to bulk import", e);
+        }
+    }
+
     @Override
     public Optional<Todo> retrieve(String id) throws StorageException {
-        String sql = "SELECT * FROM todos WHERE id=?";
+        String sql = "SELECT * FROM todos WHERE id=?" + tenantAnd();
 
         try (Connection conn = getConn();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, Integer.parseInt(id));
+            bindTenant(ps, 2);
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) return Optional.of(map(rs));
@@ -91,14 +231,16 @@ public final class PostgresTodoStorage implements TodoStorage {
 
     @Override
     public List<Todo> retrieveAll() throws StorageException {
-        String sql = "SELECT * FROM todos";
+        String sql = "SELECT * FROM todos" + tenantWhere();
 
         try (Connection conn = getConn();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
+            bindTenant(ps, 1);
             List<Todo> list = new ArrayList<>();
-            while (rs.next()) list.add(map(rs));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
             return list;
 
         } catch (Exception e) {
@@ -106,9 +248,66 @@ public final class PostgresTodoStorage implements TodoStorage {
         }
     }
 
+    @Override
+    public void scan(Consumer<? super Todo> consumer) throws StorageException {
+        try {
+            streamQuery("SELECT * FROM todos" + tenantWhere(), consumer);
+        } catch (Exception e) {
+            throw new StorageException("Failed to scan", e);
+        }
+    }
+
+    /**
+     * Splits {@code [MIN(id), MAX(id)]} into equal-width ranges, each read through its own cursor.
+     */
+    @Override
+    public Stream<Todo> parallelScan(ParallelScanOptions options) throws StorageException {
+        List<IdRange> ranges;
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement("SELECT MIN(id), MAX(id) FROM todos" + tenantWhere())) {
+
+            bindTenant(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long min = rs.getLong(1);
+                if (rs.wasNull()) return Stream.empty();
+                ranges = IdRange.split(min, rs.getLong(2), options.parallelism());
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to plan parallel scan", e);
+        }
+
+        List<ScanPartition> partitions = new ArrayList<>(ranges.size());
+        for (IdRange range : ranges) {
+            partitions.add(sink -> streamQuery("SELECT * FROM todos WHERE id BETWEEN ? AND ?" + tenantAnd(),
+                    sink, range.from(), range.to()));
+        }
+        return PartitionedScan.stream(partitions, options);
+    }
+
+    private void streamQuery(String sql, Consumer<? super Todo> consumer, long... params) throws SQLException {
+        try (Connection conn = getConn()) {
+            // The driver only uses a server-side cursor outside auto-commit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setFetchSize(SCAN_FETCH_SIZE);
+                for (int i = 0; i < params.length; i++) ps.setLong(i + 1, params[i]);
+                bindTenant(ps, params.length + 1);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) consumer.accept(map(rs));
+                }
+            }
+            conn.commit();
+        }
+    }
+
     @Override
     public void update(Todo todo) throws StorageException {
-        String sql = "UPDATE todos SET title=?,description=?,completed=? WHERE id=?";
+        String sql = "UPDATE todos SET title=?,description=?,completed=? WHERE id=?" + tenantAnd();
 
         try (Connection conn = getConn();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -117,6 +316,7 @@ public final class PostgresTodoStorage implements TodoStorage {
             ps.setString(2, todo.getDescription());
             ps.setBoolean(3, todo.isCompleted());
             ps.setInt(4, Integer.parseInt(todo.getId()));
+            bindTenant(ps, 5);
 
             if (ps.executeUpdate() == 0)
                 throw new StorageException("ID not found");
@@ -128,12 +328,13 @@ public final class PostgresTodoStorage implements TodoStorage {
 
     @Override
     public void delete(String id) throws StorageException {
-        String sql = "DELETE FROM todos WHERE id=?";
+        String sql = "DELETE FROM todos WHERE id=?" + tenantAnd();
 
         try (Connection conn = getConn();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, Integer.parseInt(id));
+            bindTenant(ps, 2);
             ps.executeUpdate();
 
         } catch (Exception e) {
@@ -141,12 +342,152 @@ public final class PostgresTodoStorage implements TodoStorage {
         }
     }
 
+    /**
+     * Reads the old flag through a {@code FOR UPDATE} sub-select in the same
+     * statement; under concurrent updates it waits for the row lock and
+     * sees the latest committed version.
+     */
+    @Override
+    public boolean updateAndGetPreviousCompleted(Todo todo) throws StorageException {
+        String sql = "UPDATE todos t SET title=?,description=?,completed=? "
+                + "FROM (SELECT id, completed FROM todos WHERE id=?" + tenantAnd() + " FOR UPDATE) prev "
+                + "WHERE t.id = prev.id RETURNING prev.completed";
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, todo.getTitle());
+            ps.setString(2, todo.getDescription());
+            ps.setBoolean(3, todo.isCompleted());
+            ps.setInt(4, Integer.parseInt(todo.getId()));
+            bindTenant(ps, 5);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new StorageException("ID not found");
+                return rs.getBoolean(1);
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to update", e);
+        }
+    }
+
+    @Override
+    public Optional<Boolean> deleteAndGetCompleted(String id) throws StorageException {
+        String sql = "DELETE FROM todos WHERE id=?" + tenantAnd() + " RETURNING completed";
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, Integer.parseInt(id));
+            bindTenant(ps, 2);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getBoolean(1)) : Optional.empty();
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to delete", e);
+        }
+    }
+
+    /**
+     * Picks the chunk with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+     * purgers and writers holding row locks never queue behind each other,
+     * and moves it with a single data-modifying CTE.
+     */
+    @Override
+    public List<String> purgeCompleted(int limit, boolean archive) throws StorageException {
+        String chunk = "SELECT id FROM todos WHERE completed" + tenantAnd()
+                + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+        String sql = archive
+                ? "WITH moved AS (DELETE FROM todos WHERE id IN (" + chunk + ") RETURNING *) "
+                    + "INSERT INTO todos_archive(id,title,description,completed,owner) "
+                    + "SELECT id,title,description,completed,owner FROM moved RETURNING id"
+                : "DELETE FROM todos WHERE id IN (" + chunk + ") RETURNING id";
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindTenant(ps, 1);
+            ps.setInt(tenant == null ? 1 : 2, limit);
+            List<String> ids = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(String.valueOf(rs.getInt(1)));
+            }
+            return ids;
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to purge completed", e);
+        }
+    }
+
+    @Override
+    public long count() throws StorageException {
+        String sql = "SELECT COUNT(*) FROM todos" + tenantWhere();
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindTenant(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to count", e);
+        }
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) throws StorageException {
+        String sql = "SELECT COUNT(*) FROM todos WHERE COALESCE(completed, FALSE)=?" + tenantAnd();
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setBoolean(1, completed);
+            bindTenant(ps, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to count", e);
+        }
+    }
+
+    @Override
+    public TodoStats stats() throws StorageException {
+        String sql = "SELECT completed, COUNT(*) FROM todos" + tenantWhere() + " GROUP BY completed";
+
+        try (Connection conn = getConn();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindTenant(ps, 1);
+            long total = 0;
+            long completed = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long n = rs.getLong(2);
+                    total += n;
+                    if (rs.getBoolean(1)) completed += n;
+                }
+            }
+            return new TodoStats(total, completed);
+
+        } catch (Exception e) {
+            throw new StorageException("Failed to compute stats", e);
+        }
+    }
+
     private Todo map(ResultSet rs) throws SQLException {
         return new Todo(
                 String.valueOf(rs.getInt("id")),
                 rs.getString("title"),
                 rs.getString("description"),
-                rs.getBoolean("completed")
+                rs.getBoolean("completed"),
+                rs.getString("owner")
         );
     }
 }
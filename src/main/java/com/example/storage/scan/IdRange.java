@@ -0,0 +1,27 @@
+package com.example.storage.scan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive numeric id range used to partition JDBC tables.
+ */
+public record IdRange(long from, long to) {
+
+    /**
+     * Splits {@code [min, max]} into at most {@code parts} contiguous ranges of near-equal width.
+     */
+    public static List<IdRange> split(long min, long max, int parts) {
+        List<IdRange> ranges = new ArrayList<>(parts);
+        long span = max - min + 1;
+        long width = Math.max(1, (span + parts - 1) / parts);
+
+        for (long from = min; from <= max; from += width) {
+            // Compare before adding so ranges ending at Long.MAX_VALUE cannot overflow
+            long to = from > max - (width - 1) ? max : from + width - 1;
+            ranges.add(new IdRange(from, to));
+            if (from > max - width) break;
+        }
+        return ranges;
+    }
+}
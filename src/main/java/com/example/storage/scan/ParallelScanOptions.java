@@ -0,0 +1,19 @@
+package com.example.storage.scan;
+
+/**
+ * @param parallelism number of partitions scanned concurrently, each on its own connection
+ * @param bufferSize  upper bound on rows held between the partition readers and the consumer
+ */
+public record ParallelScanOptions(int parallelism, int bufferSize) {
+
+    public static final int DEFAULT_BUFFER_SIZE = 10_000;
+
+    public ParallelScanOptions {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be >= 1");
+    }
+
+    public static ParallelScanOptions defaults() {
+        return new ParallelScanOptions(Runtime.getRuntime().availableProcessors(), DEFAULT_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.storage.scan;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a set of partitions concurrently and merges their rows into one
+ * stream. Readers hand rows over in small batches through a bounded queue,
+ * so at most {@link ParallelScanOptions#bufferSize()} rows (plus one batch
+ * per reader) are in memory at once; readers block when the consumer falls
+ * behind. Closing the stream interrupts the readers still running, runs the
+ * cancel actions their partitions registered (see {@link ScanSink#onCancel})
+ * and waits up to {@value #CLOSE_TIMEOUT_SECONDS} seconds for them to stop.
+ */
+public final class PartitionedScan {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedScan.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private static final List<Todo> END = List.of();
+
+    private PartitionedScan() {}
+
+    public static Stream<Todo> stream(List<? extends ScanPartition> partitions, ParallelScanOptions options) {
+        int threads = Math.min(options.parallelism(), Math.max(1, partitions.size()));
+        int batchSize = Math.min(BATCH_SIZE, options.bufferSize());
+        BlockingQueue<List<Todo>> queue = new ArrayBlockingQueue<>(Math.max(1, options.bufferSize() / batchSize));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Cancellation cancellation = new Cancellation();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "partitioned-scan");
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (ScanPartition partition : partitions) {
+            executor.execute(() -> runPartition(partition, new Batcher(queue, batchSize, cancellation), failure));
+        }
+        executor.shutdown();
+
+        logger.debug("Scanning {} partitions on {} threads", partitions.size(), threads);
+
+        Iterator<Todo> it = new MergingIterator(queue, failure, partitions.size());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.NONNULL), false)
+                .onClose(() -> close(executor, cancellation));
+    }
+
+    private static void close(ExecutorService executor, Cancellation cancellation) {
+        cancellation.cancel();
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Partitioned scan readers still running {} s after close", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runPartition(ScanPartition partition, Batcher batcher, AtomicReference<Throwable> failure) {
+        try {
+            partition.scan(batcher);
+            batcher.flush();
+        } catch (Throwable e) {
+            // Errors caused by cancelling (a killed query, a closed cursor) are not failures
+            if (!batcher.cancellation.cancelled) failure.compareAndSet(null, e);
+        } finally {
+            batcher.cancellation.hooks.removeAll(batcher.hooks);
+            try {
+                batcher.queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<List<Todo>> queue, List<Todo> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Scan cancelled");
+        }
+    }
+
+    /**
+     * Cancel actions registered by the running partitions. Whoever removes an
+     * action from {@code hooks} runs it, so each runs at most once.
+     */
+    private static final class Cancellation {
+        final Queue<Runnable> hooks = new ConcurrentLinkedQueue<>();
+        volatile boolean cancelled;
+
+        void cancel() {
+            cancelled = true;
+            for (Runnable hook; (hook = hooks.poll()) != null; ) run(hook);
+        }
+
+        void register(Runnable hook) {
+            hooks.add(hook);
+            if (cancelled && hooks.remove(hook)) run(hook);
+        }
+
+        private static void run(Runnable hook) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                logger.debug("Scan cancel action failed", e);
+            }
+        }
+    }
+
+    private static final class Batcher implements ScanSink {
+
+        final BlockingQueue<List<Todo>> queue;
+        final Cancellation cancellation;
+        final List<Runnable> hooks = new ArrayList<>(1);
+        private final int batchSize;
+        private List<Todo> batch;
+
+        Batcher(BlockingQueue<List<Todo>> queue, int batchSize, Cancellation cancellation) {
+            this.queue = queue;
+            this.batchSize = batchSize;
+            this.cancellation = cancellation;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void accept(Todo todo) {
+            if (cancellation.cancelled) throw new CancellationException("Scan cancelled");
+            batch.add(todo);
+            if (batch.size() == batchSize) flush();
+        }
+
+        @Override
+        public void onCancel(Runnable action) {
+            hooks.add(action);
+            cancellation.register(action);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            put(queue, batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private static final class MergingIterator implements Iterator<Todo> {
+
+        private final BlockingQueue<List<Todo>> queue;
+        private final AtomicReference<Throwable> failure;
+        private int open;
+        private Iterator<Todo> current = END.iterator();
+
+        MergingIterator(BlockingQueue<List<Todo>> queue, AtomicReference<Throwable> failure, int partitions) {
+            this.queue = queue;
+            this.failure = failure;
+            this.open = partitions;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (failure.get() != null) {
+                    throw new StorageException("Partitioned scan failed", failure.get());
+                }
+                if (open == 0) return false;
+
+                List<Todo> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted while waiting for scan results", e);
+                }
+
+                if (batch == END) {
+                    open--;
+                } else {
+                    current = batch.iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Todo next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+    }
+}
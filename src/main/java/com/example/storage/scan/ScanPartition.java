@@ -0,0 +1,9 @@
+package com.example.storage.scan;
+
+/**
+ * One independently scannable slice of a table or collection.
+ */
+@FunctionalInterface
+public interface ScanPartition {
+    void scan(ScanSink sink) throws Exception;
+}
@@ -0,0 +1,20 @@
+package com.example.storage.scan;
+
+import com.example.model.Todo;
+
+import java.util.function.Consumer;
+
+/**
+ * Receives the rows of one {@link ScanPartition}.
+ */
+public interface ScanSink extends Consumer<Todo> {
+
+    /**
+     * Registers an action that aborts the partition's read if the scan is
+     * closed before the partition finishes, for drivers that do not react
+     * to thread interrupts (e.g. {@code Statement::cancel}). Runs at once if
+     * the scan is already closed. Actions still registered when the
+     * partition returns are dropped.
+     */
+    void onCancel(Runnable action);
+}
@@ -0,0 +1,118 @@
+package com.example.storage.snapshot;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * On-disk layout of a snapshot directory.
+ * <p>
+ * A snapshot is a {@value #MANIFEST} file plus one or more segment files.
+ * Each segment starts with a magic number and format version, followed by
+ * length-prefixed records:
+ * <pre>
+ *   int recordLength
+ *   string id, string title, string description, string owner
+ *   byte completed
+ * </pre>
+ * where a string is an int byte length ({@code -1} for null) followed by
+ * UTF-8 bytes. All ints are big-endian. The manifest records each
+ * segment's record count, byte size and CRC32C over the whole file.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x54445350; // "TDSP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final String MANIFEST = "snapshot.properties";
+
+    private SnapshotFormat() {}
+
+    static String segmentName(int segment) {
+        return String.format("segment-%04d.bin", segment);
+    }
+
+    /**
+     * Encoded size of a record including its length prefix.
+     */
+    static int encodedSize(byte[][] fields) {
+        int size = 4 + 1;
+        for (byte[] f : fields) size += 4 + (f == null ? 0 : f.length);
+        return size;
+    }
+
+    static byte[][] fields(Todo todo) {
+        return new byte[][] {
+                bytes(todo.getId()), bytes(todo.getTitle()), bytes(todo.getDescription()), bytes(todo.getOwner())
+        };
+    }
+
+    static void encode(ByteBuffer buf, byte[][] fields, boolean completed) {
+        buf.putInt(encodedSize(fields) - 4);
+        for (byte[] f : fields) {
+            if (f == null) {
+                buf.putInt(-1);
+            } else {
+                buf.putInt(f.length);
+                buf.put(f);
+            }
+        }
+        buf.put((byte) (completed ? 1 : 0));
+    }
+
+    /**
+     * Decodes one record body (without its length prefix).
+     */
+    static Todo decode(ByteBuffer buf) {
+        String id = string(buf);
+        String title = string(buf);
+        String description = string(buf);
+        String owner = string(buf);
+        boolean completed = buf.get() != 0;
+        return new Todo(id, title, description, completed, owner);
+    }
+
+    static void writeManifest(Path dir, Properties manifest) {
+        try (Writer w = Files.newBufferedWriter(dir.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            manifest.store(w, "todo snapshot");
+        } catch (IOException e) {
+            throw new StorageException("Failed to write snapshot manifest in " + dir, e);
+        }
+    }
+
+    static Properties readManifest(Path dir) {
+        Properties manifest = new Properties();
+        try (Reader r = Files.newBufferedReader(dir.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            manifest.load(r);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read snapshot manifest in " + dir, e);
+        }
+
+        int version = Integer.parseInt(manifest.getProperty("version", "0"));
+        if (version != VERSION) {
+            throw new StorageException("Unsupported snapshot version " + version + " in " + dir);
+        }
+        return manifest;
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0) return null;
+
+        byte[] b = new byte[len];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.storage.snapshot;
+
+import java.util.Properties;
+
+/**
+ * @param segments           segment files a backup is split into, one writer thread each
+ * @param bufferSize         bytes per read/write buffer
+ * @param batchSize          todos per {@code saveAll} call during a restore
+ * @param restoreParallelism segments restored at once; 1 for targets that do not
+ *                           tolerate concurrent batch inserts
+ */
+public record SnapshotOptions(int segments, int bufferSize, int batchSize, int restoreParallelism) {
+
+    public static final SnapshotOptions DEFAULTS = new SnapshotOptions(SnapshotWriter.DEFAULT_SEGMENTS,
+            SnapshotWriter.DEFAULT_BUFFER_SIZE, SnapshotReader.DEFAULT_BATCH_SIZE, SnapshotWriter.DEFAULT_SEGMENTS);
+
+    public SnapshotOptions {
+        if (segments < 1) throw new IllegalArgumentException("segments must be >= 1");
+        if (bufferSize < 1024) throw new IllegalArgumentException("bufferSize must be >= 1024");
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        if (restoreParallelism < 1) throw new IllegalArgumentException("restoreParallelism must be >= 1");
+    }
+
+    public static SnapshotOptions fromProperties(Properties props) {
+        return new SnapshotOptions(
+                Integer.parseInt(props.getProperty("snapshot.segments", "4")),
+                Integer.parseInt(props.getProperty("snapshot.bufferSize", String.valueOf(4 << 20))),
+                Integer.parseInt(props.getProperty("snapshot.batchSize", "1000")),
+                Integer.parseInt(props.getProperty("snapshot.restoreParallelism", "4")));
+    }
+}
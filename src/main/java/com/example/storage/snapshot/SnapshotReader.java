@@ -0,0 +1,290 @@
+package com.example.storage.snapshot;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Restores a snapshot directory written by {@link SnapshotWriter}.
+ * <p>
+ * Every segment is checksummed against the manifest before anything is
+ * written, then segments are decoded concurrently (one thread each, up to
+ * the configured parallelism) and fed to
+ * {@link TodoStorage#saveAll} in batches. Each thread holds one read
+ * buffer and one batch, so memory use does not grow with snapshot size.
+ * Stored ids are not reused: the target storage assigns new ones, as it
+ * does for any other batch insert.
+ * <p>
+ * A restore is not atomic. The up-front checksum pass means a damaged
+ * snapshot writes nothing, but a target that fails part way (or a segment
+ * whose record count disagrees with the manifest) leaves every batch
+ * committed before the failure in place. The exception reports how many
+ * todos that was, so the caller can clear the target or restore into an
+ * empty one and retry.
+ */
+public final class SnapshotReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotReader.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_BUFFER_SIZE = 4 << 20;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final int batchSize;
+    private final int bufferSize;
+    private final int parallelism;
+
+    public SnapshotReader() {
+        this(SnapshotOptions.DEFAULTS);
+    }
+
+    public SnapshotReader(SnapshotOptions options) {
+        this(options.batchSize(), options.bufferSize(), options.restoreParallelism());
+    }
+
+    /**
+     * @param parallelism upper bound on segments restored at once; use 1 for
+     *                    targets that do not tolerate concurrent batch inserts
+     */
+    public SnapshotReader(int batchSize, int bufferSize, int parallelism) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        if (bufferSize < 1024) throw new IllegalArgumentException("bufferSize must be >= 1024");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Checks every segment's size and CRC32C against the manifest.
+     */
+    public void verify(Path dir) throws StorageException {
+        verify(dir, SnapshotFormat.readManifest(dir));
+    }
+
+    /**
+     * Verifies every segment, then restores them into {@code storage}.
+     *
+     * @throws StorageException if the snapshot is damaged, in which case
+     *         nothing was written, or if a segment fails to restore, in which
+     *         case the message says how many todos were already committed
+     */
+    public SnapshotResult restore(Path dir, TodoStorage storage) throws StorageException {
+        long start = System.nanoTime();
+        Properties manifest = SnapshotFormat.readManifest(dir);
+        verify(dir, manifest);
+
+        int segments = Integer.parseInt(manifest.getProperty("segments"));
+        AtomicLong committed = new AtomicLong();
+        List<Callable<Long>> tasks = new ArrayList<>(segments);
+        long bytes = 0;
+        for (int i = 0; i < segments; i++) {
+            int segment = i;
+            tasks.add(() -> restoreSegment(dir, manifest, segment, storage, committed));
+            bytes += Long.parseLong(manifest.getProperty("segment." + i + ".bytes"));
+        }
+
+        long records = 0;
+        try {
+            for (long n : runAll(tasks, parallelism, "restore", dir)) records += n;
+        } catch (StorageException e) {
+            throw new StorageException("Failed to restore snapshot " + dir + " after " + committed.get()
+                    + " todos were committed: " + e.getMessage(), e);
+        }
+
+        SnapshotResult result = new SnapshotResult(records, bytes, segments, System.nanoTime() - start);
+        logger.info("Snapshot: restored {} todos from {} in {} ms", records, dir, result.elapsedMillis());
+        return result;
+    }
+
+    private void verify(Path dir, Properties manifest) {
+        int segments = Integer.parseInt(manifest.getProperty("segments"));
+
+        List<Callable<Long>> tasks = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            int segment = i;
+            tasks.add(() -> verifySegment(dir, manifest, segment));
+        }
+        runAll(tasks, tasks.size(), "verify", dir);
+    }
+
+    private long verifySegment(Path dir, Properties manifest, int segment) throws IOException {
+        Path path = segmentPath(dir, manifest, segment);
+        long expectedBytes = Long.parseLong(manifest.getProperty("segment." + segment + ".bytes"));
+        long expectedCrc = Long.parseLong(manifest.getProperty("segment." + segment + ".crc32c"), 16);
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocateDirect(bufferSize);
+        long bytes = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buf) >= 0) {
+                buf.flip();
+                bytes += buf.remaining();
+                crc.update(buf);
+                buf.clear();
+            }
+        }
+
+        if (bytes != expectedBytes || crc.getValue() != expectedCrc) {
+            throw new StorageException("Snapshot segment " + path + " is corrupt: expected "
+                    + expectedBytes + " bytes/crc " + Long.toHexString(expectedCrc) + ", found "
+                    + bytes + " bytes/crc " + Long.toHexString(crc.getValue()));
+        }
+        return bytes;
+    }
+
+    private long restoreSegment(Path dir, Properties manifest, int segment, TodoStorage storage,
+                                AtomicLong committed) throws IOException {
+        Path path = segmentPath(dir, manifest, segment);
+        long expected = Long.parseLong(manifest.getProperty("segment." + segment + ".records"));
+
+        long records = 0;
+        try (SegmentInput in = new SegmentInput(path, bufferSize)) {
+            if (!in.ensure(SnapshotFormat.HEADER_SIZE)
+                    || in.buf.getInt() != SnapshotFormat.MAGIC
+                    || in.buf.getInt() != SnapshotFormat.VERSION) {
+                throw new StorageException("Not a todo snapshot segment: " + path);
+            }
+
+            List<Todo> batch = new ArrayList<>(batchSize);
+            while (in.ensure(4)) {
+                int len = in.buf.getInt(in.buf.position());
+                if (len < 0 || !in.ensure(4 + len)) {
+                    throw new StorageException("Truncated record in snapshot segment " + path);
+                }
+
+                in.buf.getInt();
+                int end = in.buf.position() + len;
+                batch.add(SnapshotFormat.decode(in.buf));
+                if (in.buf.position() != end) {
+                    throw new StorageException("Malformed record in snapshot segment " + path);
+                }
+
+                if (batch.size() >= batchSize) {
+                    storage.saveAll(batch);
+                    records += batch.size();
+                    committed.addAndGet(batch.size());
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                storage.saveAll(batch);
+                records += batch.size();
+                committed.addAndGet(batch.size());
+            }
+        }
+
+        if (records != expected) {
+            throw new StorageException("Snapshot segment " + path + " held " + records
+                    + " records, manifest says " + expected);
+        }
+        logger.debug("Snapshot: restored {} todos from {}", records, path);
+        return records;
+    }
+
+    private static Path segmentPath(Path dir, Properties manifest, int segment) {
+        String file = manifest.getProperty("segment." + segment + ".file");
+        if (file == null) throw new StorageException("Snapshot manifest is missing segment " + segment);
+        return dir.resolve(file);
+    }
+
+    private static List<Long> runAll(List<Callable<Long>> tasks, int threads, String action, Path dir) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())), r -> {
+            Thread t = new Thread(r, "snapshot-" + action);
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Long>> futures = new ArrayList<>(tasks.size());
+            for (Callable<Long> task : tasks) futures.add(executor.submit(task));
+
+            List<Long> results = new ArrayList<>(tasks.size());
+            for (Future<Long> f : futures) results.add(f.get());
+            return results;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException se) throw se;
+            throw new StorageException("Failed to " + action + " snapshot " + dir, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted during snapshot " + action, e);
+        } finally {
+            // Let the other segments stop before returning, so a failed
+            // restore's committed count is not still moving
+            executor.shutdownNow();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Snapshot {} workers still running {} s after shutdown", action, SHUTDOWN_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over a segment file that keeps at least the
+     * requested number of bytes readable in {@link #buf}, growing the
+     * buffer only for records larger than it.
+     */
+    private static final class SegmentInput implements AutoCloseable {
+        private final FileChannel channel;
+        private final Path path;
+        ByteBuffer buf;
+        private boolean eof;
+
+        SegmentInput(Path path, int bufferSize) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buf = ByteBuffer.allocateDirect(bufferSize).limit(0);
+        }
+
+        /**
+         * @return false on a clean end of file, true once {@code need} bytes are readable
+         */
+        boolean ensure(int need) throws IOException {
+            if (buf.remaining() >= need) return true;
+
+            if (need > buf.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(need);
+                bigger.put(buf).flip();
+                buf = bigger;
+            }
+
+            buf.compact();
+            while (buf.position() < need && !eof) {
+                if (channel.read(buf) < 0) eof = true;
+            }
+            buf.flip();
+
+            if (buf.remaining() >= need) return true;
+            if (buf.remaining() == 0) return false;
+            throw new StorageException("Unexpected end of snapshot segment " + path);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
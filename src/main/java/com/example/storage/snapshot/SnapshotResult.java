@@ -0,0 +1,12 @@
+package com.example.storage.snapshot;
+
+public record SnapshotResult(long records, long bytes, int segments, long elapsedNanos) {
+
+    public double recordsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : records * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long elapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
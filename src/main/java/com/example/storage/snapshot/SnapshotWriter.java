@@ -0,0 +1,276 @@
+package com.example.storage.snapshot;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.scan.ParallelScanOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Exports a storage into a snapshot directory (see {@link SnapshotFormat}).
+ * <p>
+ * Rows come from {@link TodoStorage#parallelScan} and are encoded into a
+ * fixed pool of direct buffers. Full buffers are handed round-robin to one
+ * writer thread per segment file, which checksums them and writes them
+ * through a {@link FileChannel}. Memory use is bounded by the pool
+ * (two buffers per segment) regardless of table size. The manifest is
+ * written last, so a directory without one is an incomplete export.
+ */
+public final class SnapshotWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotWriter.class);
+
+    public static final int DEFAULT_SEGMENTS = 4;
+    public static final int DEFAULT_BUFFER_SIZE = 4 << 20;
+
+    private static final Chunk END = new Chunk(null, 0);
+
+    private final int segments;
+    private final int bufferSize;
+
+    public SnapshotWriter() {
+        this(DEFAULT_SEGMENTS, DEFAULT_BUFFER_SIZE);
+    }
+
+    public SnapshotWriter(SnapshotOptions options) {
+        this(options.segments(), options.bufferSize());
+    }
+
+    public SnapshotWriter(int segments, int bufferSize) {
+        if (segments < 1) throw new IllegalArgumentException("segments must be >= 1");
+        if (bufferSize < 1024) throw new IllegalArgumentException("bufferSize must be >= 1024");
+        this.segments = segments;
+        this.bufferSize = bufferSize;
+    }
+
+    public SnapshotResult write(TodoStorage storage, Path dir) throws StorageException {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve(SnapshotFormat.MANIFEST));
+        } catch (IOException e) {
+            throw new StorageException("Failed to prepare snapshot directory " + dir, e);
+        }
+
+        BlockingQueue<ByteBuffer> pool = new ArrayBlockingQueue<>(segments * 2);
+        for (int i = 0; i < segments * 2; i++) {
+            pool.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Segment[] segs = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            segs[i] = new Segment(dir.resolve(SnapshotFormat.segmentName(i)), pool, failure);
+            segs[i].thread.start();
+        }
+
+        Encoder encoder = new Encoder(segs, pool, failure);
+        try (Stream<Todo> todos = storage.parallelScan(
+                new ParallelScanOptions(segments, ParallelScanOptions.DEFAULT_BUFFER_SIZE))) {
+            todos.forEach(encoder::append);
+            encoder.flush();
+        } finally {
+            for (Segment s : segs) s.finish();
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new StorageException("Failed to write snapshot to " + dir, error);
+        }
+
+        long records = 0;
+        long bytes = 0;
+        Properties manifest = new Properties();
+        manifest.setProperty("version", String.valueOf(SnapshotFormat.VERSION));
+        manifest.setProperty("segments", String.valueOf(segments));
+        for (int i = 0; i < segments; i++) {
+            Segment s = segs[i];
+            manifest.setProperty("segment." + i + ".file", s.path.getFileName().toString());
+            manifest.setProperty("segment." + i + ".records", String.valueOf(s.records));
+            manifest.setProperty("segment." + i + ".bytes", String.valueOf(s.bytes));
+            manifest.setProperty("segment." + i + ".crc32c", Long.toHexString(s.crc.getValue()));
+            records += s.records;
+            bytes += s.bytes;
+        }
+        manifest.setProperty("records", String.valueOf(records));
+        SnapshotFormat.writeManifest(dir, manifest);
+
+        SnapshotResult result = new SnapshotResult(records, bytes, segments, System.nanoTime() - start);
+        logger.info("Snapshot: wrote {} todos ({} bytes, {} segments) to {} in {} ms",
+                records, bytes, segments, dir, result.elapsedMillis());
+        return result;
+    }
+
+    private record Chunk(ByteBuffer buffer, int records) {}
+
+    /**
+     * Single-threaded encoder fed by the scan stream.
+     */
+    private final class Encoder {
+        private final Segment[] segs;
+        private final BlockingQueue<ByteBuffer> pool;
+        private final AtomicReference<Throwable> failure;
+        private ByteBuffer current;
+        private int records;
+        private int next;
+
+        Encoder(Segment[] segs, BlockingQueue<ByteBuffer> pool, AtomicReference<Throwable> failure) {
+            this.segs = segs;
+            this.pool = pool;
+            this.failure = failure;
+        }
+
+        void append(Todo todo) {
+            byte[][] fields = SnapshotFormat.fields(todo);
+            int size = SnapshotFormat.encodedSize(fields);
+
+            if (size > bufferSize) {
+                // too large for a pooled buffer; ship it on its own
+                flush();
+                ByteBuffer big = ByteBuffer.allocate(size);
+                SnapshotFormat.encode(big, fields, todo.isCompleted());
+                dispatch(big, 1);
+                return;
+            }
+
+            if (current != null && current.remaining() < size) flush();
+            if (current == null) current = take();
+
+            SnapshotFormat.encode(current, fields, todo.isCompleted());
+            records++;
+        }
+
+        void flush() {
+            if (current == null) return;
+            dispatch(current, records);
+            current = null;
+            records = 0;
+        }
+
+        private void dispatch(ByteBuffer buffer, int count) {
+            Throwable error = failure.get();
+            if (error != null) throw new StorageException("Snapshot segment writer failed", error);
+
+            buffer.flip();
+            segs[next].put(new Chunk(buffer, count));
+            next = (next + 1) % segs.length;
+        }
+
+        private ByteBuffer take() {
+            try {
+                return pool.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while writing snapshot", e);
+            }
+        }
+    }
+
+    /**
+     * One segment file and the thread that writes it. After a failure the
+     * thread keeps draining its queue so the encoder never blocks on it.
+     */
+    private static final class Segment implements Runnable {
+        final Path path;
+        final CRC32C crc = new CRC32C();
+        final Thread thread;
+        long records;
+        long bytes;
+
+        private final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(2);
+        private final BlockingQueue<ByteBuffer> pool;
+        private final AtomicReference<Throwable> failure;
+
+        Segment(Path path, BlockingQueue<ByteBuffer> pool, AtomicReference<Throwable> failure) {
+            this.path = path;
+            this.pool = pool;
+            this.failure = failure;
+            this.thread = new Thread(this, "snapshot-writer-" + path.getFileName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE)
+                        .putInt(SnapshotFormat.MAGIC)
+                        .putInt(SnapshotFormat.VERSION)
+                        .flip();
+                write(channel, header);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+
+            try {
+                for (Chunk chunk = queue.take(); chunk != END; chunk = queue.take()) {
+                    try {
+                        if (failure.get() == null) {
+                            write(channel, chunk.buffer());
+                            records += chunk.records();
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        if (chunk.buffer().isDirect()) pool.put(chunk.buffer().clear());
+                    }
+                }
+                if (channel != null && failure.get() == null) channel.force(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        }
+
+        private void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+            crc.update(buffer.duplicate());
+            bytes += buffer.remaining();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+
+        void put(Chunk chunk) {
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while writing snapshot", e);
+            }
+        }
+
+        void finish() {
+            try {
+                queue.put(END);
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+}
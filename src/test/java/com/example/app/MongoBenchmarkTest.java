@@ -0,0 +1,43 @@
+package com.example.app;
+
+import com.example.storage.mongo.MongoAsyncOptions;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoBenchmarkTest {
+
+    @Test
+    void everyPhaseCompletesWithoutFailures() throws Exception {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        try {
+            String conn = server.bindAndGetConnectionString();
+            for (int run = 0; run < 2; run++) {
+                List<MongoBenchmark.Result> results = MongoBenchmark.run(conn, "bench",
+                        MongoAsyncOptions.defaults(), 200, 16);
+
+                assertEquals(List.of("sync insert", "sync read", "async insert", "async read"),
+                        results.stream().map(MongoBenchmark.Result::name).toList());
+                for (MongoBenchmark.Result r : results) {
+                    assertEquals(200, r.ops(), r.name());
+                    assertEquals(0, r.failures(), r.name());
+                }
+            }
+
+            // Each run cleans up after itself
+            try (MongoClient client = MongoClients.create(conn)) {
+                for (String name : client.getDatabase("bench").listCollectionNames()) {
+                    assertFalse(name.startsWith("bench_"), name);
+                }
+            }
+        } finally {
+            server.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeySpaceTest {
+
+    @Test
+    void zipfianHotKeyDoesNotMoveWhenIdsAreInserted() {
+        KeySpace keys = new KeySpace(KeyDistribution.ZIPFIAN, 1000, 1000);
+        for (int i = 0; i < 1000; i++) keys.add("id-" + i);
+
+        Set<String> hottest = hottest(keys);
+
+        for (int i = 1000; i < 1337; i++) keys.add("id-" + i);
+
+        assertEquals(hottest, hottest(keys));
+    }
+
+    @Test
+    void zipfianOnlyPicksInsertedPositions() {
+        KeySpace keys = new KeySpace(KeyDistribution.ZIPFIAN, 10, 1000);
+        for (int i = 0; i < 10; i++) keys.add("id-" + i);
+
+        for (int i = 0; i < 10_000; i++) {
+            int index = keys.zipfianIndex(10);
+            assertTrue(index >= 0 && index < 10, "index " + index);
+        }
+    }
+
+    private static Set<String> hottest(KeySpace keys) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) counts.merge(keys.choose(), 1, Integer::sum);
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+}
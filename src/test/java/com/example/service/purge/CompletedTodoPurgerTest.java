@@ -0,0 +1,40 @@
+package com.example.service.purge;
+
+import com.example.service.TodoService;
+import com.example.storage.TodoStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CompletedTodoPurgerTest {
+
+    @Test
+    void shortChunkDoesNotEndTheRun() {
+        TodoStorage storage = mock(TodoStorage.class);
+        when(storage.purgeCompleted(3, true))
+                .thenReturn(List.of("1"))            // two rows skipped as locked
+                .thenReturn(List.of("2", "3", "4"))
+                .thenReturn(List.of("5"))
+                .thenReturn(List.of());
+
+        CompletedTodoPurger purger = new CompletedTodoPurger(new TodoService(storage), new PurgeOptions(3, 0, true));
+
+        assertEquals(5, purger.runOnce());
+        verify(storage, times(4)).purgeCompleted(3, true);
+        assertEquals(3, purger.stats().chunks());
+    }
+
+    @Test
+    void emptyFirstChunkEndsTheRun() {
+        TodoStorage storage = mock(TodoStorage.class);
+        when(storage.purgeCompleted(anyInt(), anyBoolean())).thenReturn(List.of());
+
+        CompletedTodoPurger purger = new CompletedTodoPurger(new TodoService(storage), new PurgeOptions(100, 0, false));
+
+        assertEquals(0, purger.runOnce());
+        verify(storage, times(1)).purgeCompleted(100, false);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.service.search;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TodoSearchIndexTest {
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.index(new Todo("1", "water plants", "and buy milk", false));
+        index.index(new Todo("2", "buy milk", "before noon", false));
+        index.index(new Todo("3", "call bob", "about the car", false));
+
+        List<SearchHit> hits = index.search("milk", 10);
+
+        assertEquals(List.of("2", "1"), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertEquals(List.of(), index.search("xyzzy", 10));
+        assertEquals(List.of(), index.search("milk", 0));
+    }
+
+    @Test
+    void reindexReplacesTheOldText() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.index(new Todo("1", "buy milk", "", false));
+        index.index(new Todo("1", "buy bread", "", false));
+
+        assertEquals(List.of(), index.search("milk", 10));
+        assertEquals(List.of("1"), ids(index.search("bread", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removedTodosAreNotFound() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.index(new Todo("1", "buy milk", "", false));
+        index.index(new Todo("2", "more milk", "", false));
+
+        index.remove("1");
+        index.remove("missing");
+
+        assertEquals(List.of("2"), ids(index.search("milk", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveTodosSearchable() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        for (int i = 0; i < 3000; i++) index.index(new Todo(String.valueOf(i), "task " + i, "common", false));
+        // Enough tombstones to outnumber the live todos and force renumbering
+        for (int i = 0; i < 2000; i++) index.remove(String.valueOf(i));
+        for (int i = 2000; i < 2500; i++) index.index(new Todo(String.valueOf(i), "renamed " + i, "common", false));
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of("2100"), ids(index.search("renamed 2100", 1)));
+        assertEquals(List.of("2700"), ids(index.search("2700", 10)));
+        assertEquals(List.of(), index.search("1500", 10));
+        assertEquals(1000, index.search("common", 5000).size());
+    }
+
+    @Test
+    void prunedTopHitsMatchExhaustiveRanking() {
+        String[] words = new String[400];
+        for (int i = 0; i < words.length; i++) words[i] = "w" + i;
+        Random random = new Random(7);
+
+        TodoSearchIndex index = new TodoSearchIndex();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder title = new StringBuilder();
+            StringBuilder description = new StringBuilder();
+            for (int k = 0; k < 3; k++) title.append(skewed(words, random)).append(' ');
+            for (int k = 0; k < 10; k++) description.append(skewed(words, random)).append(' ');
+            index.index(new Todo(String.valueOf(i), title.toString(), description.toString(), false));
+        }
+        for (int i = 0; i < 5000; i += 7) index.remove(String.valueOf(i));
+
+        for (int q = 0; q < 200; q++) {
+            StringBuilder query = new StringBuilder();
+            int terms = 1 + random.nextInt(4);
+            for (int k = 0; k < terms; k++) query.append(skewed(words, random)).append(' ');
+
+            List<SearchHit> pruned = index.search(query.toString(), 10);
+            // A limit above the number of matches never fills the queue, so nothing is pruned
+            List<SearchHit> all = index.search(query.toString(), Integer.MAX_VALUE - 1);
+
+            assertEquals(Math.min(10, all.size()), pruned.size(), query.toString());
+            for (int i = 0; i < pruned.size(); i++) {
+                assertEquals(all.get(i).score(), pruned.get(i).score(), 1e-9, query.toString());
+            }
+        }
+    }
+
+    @Test
+    void rebuildDropsTextReplacedWhileItScanned() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        TodoStorage storage = mock(TodoStorage.class);
+        doAnswer(call -> {
+            Consumer<Todo> sink = call.getArgument(0);
+            sink.accept(new Todo("1", "old title", "", false));
+            // Writes that land between the scan reading a row and the swap
+            index.index(new Todo("1", "new title", "", false));
+            index.remove("2");
+            sink.accept(new Todo("2", "deleted todo", "", false));
+            sink.accept(new Todo("3", "untouched", "", false));
+            return null;
+        }).when(storage).scan(any());
+
+        index.rebuild(storage);
+
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of("1"), ids(index.search("new", 10)));
+        assertEquals(List.of(), index.search("deleted", 10));
+        assertEquals(List.of("3"), ids(index.search("untouched", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentIndex() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.index(new Todo("1", "buy milk", "", false));
+        TodoStorage storage = mock(TodoStorage.class);
+        doAnswer(call -> {
+            Consumer<Todo> sink = call.getArgument(0);
+            sink.accept(new Todo("9", "partial", "", false));
+            throw new StorageException("scan failed");
+        }).when(storage).scan(any());
+
+        assertThrows(StorageException.class, () -> index.rebuild(storage));
+
+        assertEquals(List.of("1"), ids(index.search("milk", 10)));
+        assertEquals(List.of(), index.search("partial", 10));
+        index.index(new Todo("2", "more milk", "", false));
+        assertEquals(2, index.size());
+    }
+
+    private static String skewed(String[] words, Random random) {
+        double u = random.nextDouble();
+        return words[(int) (u * u * u * words.length)];
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.storage;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.memory.InMemoryTodoStorage;
+import com.example.storage.mysql.MySqlTodoStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingTodoStorageTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentDeletesOfSameIdsAreCountedOnceOnH2() throws Exception {
+        concurrentDeletesOfSameIdsAreCountedOnce(h2());
+    }
+
+    @Test
+    void concurrentDeletesOfSameIdsAreCountedOnceInMemory() throws Exception {
+        concurrentDeletesOfSameIdsAreCountedOnce(new InMemoryTodoStorage());
+    }
+
+    @Test
+    void concurrentTogglesMatchBackendOnH2() throws Exception {
+        concurrentTogglesMatchBackend(h2());
+    }
+
+    @Test
+    void concurrentTogglesMatchBackendInMemory() throws Exception {
+        concurrentTogglesMatchBackend(new InMemoryTodoStorage());
+    }
+
+    @Test
+    void deleteOfMissingTodoLeavesCountersAlone() {
+        CountingTodoStorage counting = new CountingTodoStorage(new InMemoryTodoStorage());
+        counting.save(new Todo(null, "t", "d", true));
+
+        counting.delete("999");
+
+        assertEquals(new TodoStats(1, 1), counting.stats());
+    }
+
+    @Test
+    void writesThroughTenantViewUpdateParentCounters() {
+        TodoStorage backend = new InMemoryTodoStorage();
+        CountingTodoStorage counting = new CountingTodoStorage(backend);
+        counting.save(new Todo(null, "shared", "d", false));
+
+        TodoStorage alice = counting.forTenant("alice");
+        Todo a = new Todo(null, "a", "d", false);
+        alice.save(a);
+        alice.saveAll(List.of(new Todo(null, "b", "d", true), new Todo(null, "c", "d", true)));
+        assertEquals(new TodoStats(4, 2), counting.stats());
+
+        a.setCompleted(true);
+        alice.update(a);
+        assertEquals(new TodoStats(4, 3), counting.stats());
+        assertEquals(new TodoStats(3, 3), alice.stats());
+
+        assertEquals(3, alice.purgeCompleted(10, false).size());
+        assertEquals(new TodoStats(1, 0), counting.stats());
+        assertEquals(0, alice.count());
+
+        // Writes to another tenant's todo are not applied, so nothing is counted
+        Todo bob = new Todo(null, "bob", "d", false);
+        counting.forTenant("bob").save(bob);
+        alice.delete(bob.getId());
+        assertEquals(new TodoStats(2, 0), counting.stats());
+        assertEquals(backend.stats(), counting.stats());
+    }
+
+    private static void concurrentDeletesOfSameIdsAreCountedOnce(TodoStorage backend) throws Exception {
+        List<String> ids = seed(backend, 1000);
+        CountingTodoStorage counting = new CountingTodoStorage(backend);
+
+        runConcurrently(() -> {
+            for (String id : ids) counting.delete(id);
+        });
+
+        assertEquals(new TodoStats(0, 0), counting.stats());
+        assertEquals(backend.stats(), counting.stats());
+    }
+
+    private static void concurrentTogglesMatchBackend(TodoStorage backend) throws Exception {
+        List<String> ids = seed(backend, 200);
+        CountingTodoStorage counting = new CountingTodoStorage(backend);
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                String id = ids.get(random.nextInt(ids.size()));
+                counting.update(new Todo(id, "t" + i, "d", random.nextBoolean()));
+            }
+        });
+
+        assertEquals(backend.stats(), counting.stats());
+    }
+
+    private static List<String> seed(TodoStorage storage, int n) {
+        List<Todo> todos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) todos.add(new Todo(null, "t" + i, "d", i % 2 == 0));
+        storage.saveAll(todos);
+        return todos.stream().map(Todo::getId).toList();
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) futures.add(pool.submit(task));
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static TodoStorage h2() {
+        return new MySqlTodoStorage("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.storage.bulk;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoRecordReaderTest {
+
+    @Test
+    void headerSelectsColumnsInAnyOrderAndIgnoresOthers() {
+        List<Todo> todos = readAll(ImportFormat.CSV, """
+                id,owner,completed,title,description
+                7,alice,yes,Buy milk,2 litres
+                8,bob,0,Call mum,
+                """);
+
+        assertEquals(2, todos.size());
+        assertTodo(todos.get(0), "Buy milk", "2 litres", true, "alice");
+        assertTodo(todos.get(1), "Call mum", null, false, "bob");
+        assertNull(todos.get(0).getId());
+    }
+
+    @Test
+    void withoutHeaderColumnsArePositionalAndOwnerIsOptional() {
+        List<Todo> todos = readAll(ImportFormat.CSV, """
+                Buy milk,2 litres,true,alice
+                Call mum,today,false
+                """);
+
+        assertTodo(todos.get(0), "Buy milk", "2 litres", true, "alice");
+        assertTodo(todos.get(1), "Call mum", "today", false, null);
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() {
+        List<Todo> todos = readAll(ImportFormat.CSV,
+                "title,description,completed\r\n"
+                        + "\"Milk, eggs\",\"say \"\"hi\"\"\",true\r\n"
+                        + "\"two\nlines\",\"\",false\r\n");
+
+        assertEquals(2, todos.size());
+        assertTodo(todos.get(0), "Milk, eggs", "say \"hi\"", true, null);
+        assertTodo(todos.get(1), "two\nlines", "", false, null);
+    }
+
+    @Test
+    void emptyUnquotedFieldIsNullAndQuotedEmptyFieldIsEmpty() {
+        List<Todo> todos = readAll(ImportFormat.CSV, """
+                a,,true,
+                b,"",false,""
+                """);
+
+        assertTodo(todos.get(0), "a", null, true, null);
+        assertTodo(todos.get(1), "b", "", false, "");
+    }
+
+    @Test
+    void readsBackWhatCsvEncoderWrites() {
+        List<Todo> written = List.of(
+                new Todo(null, "no description", null, true, null),
+                new Todo(null, "empty description", "", false, "alice"),
+                new Todo(null, "say \"hi\", twice", "line\nbreak", false, "bob"));
+        String csv = new String(new CsvEncoder("").encode(written), StandardCharsets.UTF_8);
+
+        List<Todo> read = readAll(ImportFormat.CSV, csv);
+
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            Todo w = written.get(i);
+            assertTodo(read.get(i), w.getTitle(), w.getDescription(), w.isCompleted(), w.getOwner());
+        }
+    }
+
+    @Test
+    void blankLinesAreSkippedAnywhere() {
+        List<Todo> todos = readAll(ImportFormat.CSV,
+                "\n\ntitle,description,completed\n\none,a,true\r\n\r\ntwo,b,false\n\n");
+
+        assertEquals(List.of("one", "two"), todos.stream().map(Todo::getTitle).toList());
+    }
+
+    @Test
+    void headerOnlyInputIsEmpty() {
+        assertEquals(List.of(), readAll(ImportFormat.CSV, "title,description,completed\n"));
+        assertEquals(List.of(), readAll(ImportFormat.CSV, ""));
+    }
+
+    @Test
+    void chunksAreBoundedAndEndWithAnEmptyChunk() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5; i++) csv.append("t").append(i).append(",d,false\n");
+
+        try (TodoRecordReader reader = new TodoRecordReader(new StringReader(csv.toString()), ImportFormat.CSV, 2)) {
+            assertEquals(2, reader.nextChunk().size());
+            assertEquals(2, reader.nextChunk().size());
+            assertEquals(1, reader.nextChunk().size());
+            assertEquals(List.of(), reader.nextChunk());
+        }
+    }
+
+    @Test
+    void ndjsonAcceptsBooleanOrStringFlagsAndSkipsBlankLines() {
+        List<Todo> todos = readAll(ImportFormat.NDJSON, """
+                {"title": "a", "description": "x", "completed": true, "owner": "alice"}
+
+                {"title": "b", "completed": "no"}
+                """);
+
+        assertTodo(todos.get(0), "a", "x", true, "alice");
+        assertTodo(todos.get(1), "b", null, false, null);
+    }
+
+    @Test
+    void malformedRecordReportsItsLine() {
+        try (TodoRecordReader reader = new TodoRecordReader(
+                new StringReader("{\"title\": \"ok\"}\n{not json\n"), ImportFormat.NDJSON, 10)) {
+            StorageException e = assertThrows(StorageException.class, reader::nextChunk);
+            assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        }
+    }
+
+    @Test
+    void formatIsInferredFromTheFileName() {
+        assertEquals(ImportFormat.CSV, ImportFormat.fromPath(Path.of("export.CSV")));
+        assertEquals(ImportFormat.NDJSON, ImportFormat.fromPath(Path.of("export.jsonl")));
+        assertThrows(StorageException.class, () -> ImportFormat.fromPath(Path.of("export.txt")));
+    }
+
+    private static List<Todo> readAll(ImportFormat format, String input) {
+        List<Todo> all = new ArrayList<>();
+        try (TodoRecordReader reader = new TodoRecordReader(new StringReader(input), format, 3)) {
+            List<Todo> chunk;
+            while (!(chunk = reader.nextChunk()).isEmpty()) all.addAll(chunk);
+        }
+        return all;
+    }
+
+    private static void assertTodo(Todo todo, String title, String description, boolean completed, String owner) {
+        assertEquals(title, todo.getTitle());
+        assertEquals(description, todo.getDescription());
+        assertEquals(completed, todo.isCompleted());
+        assertEquals(owner, todo.getOwner());
+    }
+}
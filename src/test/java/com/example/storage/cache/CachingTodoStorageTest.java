@@ -0,0 +1,159 @@
+package com.example.storage.cache;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.memory.InMemoryTodoStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingTodoStorageTest {
+
+    private static final CacheOptions OPTIONS = new CacheOptions(1000, 60_000, 10, 500, 10);
+
+    @Test
+    void writeOnOneNodeInvalidatesTheOther() throws InterruptedException {
+        TodoStorage backend = new InMemoryTodoStorage();
+        LoopbackInvalidationTransport bus = new LoopbackInvalidationTransport();
+        CachingTodoStorage a = new CachingTodoStorage(backend, bus, OPTIONS);
+        CachingTodoStorage b = new CachingTodoStorage(backend, bus.connect(), OPTIONS);
+        try {
+            Todo todo = new Todo(null, "old", "d", false);
+            a.save(todo);
+            String id = todo.getId();
+
+            assertEquals("old", b.retrieve(id).orElseThrow().getTitle());
+            assertEquals("old", b.retrieve(id).orElseThrow().getTitle());
+            assertEquals(1, b.cacheStats().hits());
+
+            a.update(new Todo(id, "new", "d", true));
+            // a evicts at once; b hears about it on the next flush
+            assertEquals("new", a.retrieve(id).orElseThrow().getTitle());
+            awaitTrue(() -> b.cacheStats().received() == 1);
+            assertEquals("new", b.retrieve(id).orElseThrow().getTitle());
+            assertEquals(1, a.cacheStats().published());
+
+            a.delete(id);
+            awaitTrue(() -> b.cacheStats().received() == 2);
+            assertTrue(b.retrieve(id).isEmpty());
+        } finally {
+            a.close();
+            b.close();
+        }
+    }
+
+    @Test
+    void fillRacingAnInvalidationOfTheSameIdIsDropped() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TodoStorage backend = mock(TodoStorage.class);
+        doAnswer(inv -> {
+            reading.countDown();
+            release.await();
+            return Optional.of(new Todo("1", "stale", null, false));
+        }).doReturn(Optional.of(new Todo("1", "fresh", null, false)))
+                .when(backend).retrieve("1");
+
+        try (CachingTodoStorage cache = new CachingTodoStorage(backend, new LoopbackInvalidationTransport(), OPTIONS)) {
+            CompletableFuture<Optional<Todo>> slow = CompletableFuture.supplyAsync(() -> cache.retrieve("1"));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            cache.delete("1");
+            release.countDown();
+            assertEquals("stale", slow.get(5, TimeUnit.SECONDS).orElseThrow().getTitle());
+
+            assertEquals("fresh", cache.retrieve("1").orElseThrow().getTitle());
+            verify(backend, times(2)).retrieve("1");
+        }
+    }
+
+    @Test
+    void fillSurvivesInvalidationsOfOtherIds() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TodoStorage backend = mock(TodoStorage.class);
+        doAnswer(inv -> {
+            reading.countDown();
+            release.await();
+            return Optional.of(new Todo("1", "one", null, false));
+        }).when(backend).retrieve("1");
+
+        try (CachingTodoStorage cache = new CachingTodoStorage(backend, new LoopbackInvalidationTransport(), OPTIONS)) {
+            CompletableFuture<Optional<Todo>> slow = CompletableFuture.supplyAsync(() -> cache.retrieve("1"));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            cache.delete("2");
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+
+            assertEquals("one", cache.retrieve("1").orElseThrow().getTitle());
+            verify(backend, times(1)).retrieve("1");
+            assertEquals(1, cache.cacheStats().hits());
+        }
+    }
+
+    @Test
+    void evictionKeepsTheCacheBoundedAndSparesHotEntries() {
+        TodoStorage backend = new InMemoryTodoStorage();
+        for (int i = 0; i < 500; i++) backend.save(new Todo(null, "t" + i, null, false));
+        String[] ids = backend.retrieveAll().stream().map(Todo::getId).toArray(String[]::new);
+
+        try (CachingTodoStorage cache = new CachingTodoStorage(backend, new LoopbackInvalidationTransport(),
+                new CacheOptions(10, 60_000, 10, 500, 10))) {
+            String hot = ids[0];
+            cache.retrieve(hot);
+            for (int i = 1; i < ids.length; i++) {
+                cache.retrieve(ids[i]);
+                cache.retrieve(hot);
+            }
+            assertEquals(ids.length - 1, cache.cacheStats().hits());
+
+            long before = cache.cacheStats().hits();
+            for (String id : ids) cache.retrieve(id);
+            assertTrue(cache.cacheStats().hits() - before <= 10);
+        }
+    }
+
+    @Test
+    void closeIsIdempotentAndClosesTheBackend() {
+        TodoStorage backend = mock(TodoStorage.class);
+        when(backend.forTenant("alice")).thenReturn(backend);
+        LoopbackInvalidationTransport transport = spy(new LoopbackInvalidationTransport());
+        CachingTodoStorage cache = new CachingTodoStorage(backend, transport, OPTIONS);
+
+        // Closing a tenant view closes what it shares with the root
+        cache.forTenant("alice").close();
+        cache.close();
+        verify(transport, times(1)).close();
+        verify(backend, atLeastOnce()).close();
+    }
+
+    @Test
+    void unpublishedInvalidationsAreDroppedOnceTheTransportFallsTooFarBehind() throws InterruptedException {
+        TodoStorage backend = mock(TodoStorage.class);
+        InvalidationTransport transport = mock(InvalidationTransport.class);
+        doThrow(new StorageException("down")).when(transport).publish(anyCollection());
+
+        // One id per batch, so more than 100 pending ids is over the limit
+        try (CachingTodoStorage cache = new CachingTodoStorage(backend, transport,
+                new CacheOptions(1000, 60_000, 60_000, 1, 10))) {
+            for (int i = 0; i < 150; i++) cache.update(new Todo(String.valueOf(i), "t", null, false));
+            awaitTrue(() -> cache.cacheStats().dropped() > 100);
+            assertEquals(0, cache.cacheStats().published());
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.storage.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcChangeTableTransportTest {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Test
+    void rowCommittedAfterManyLaterRowsIsStillDelivered() throws Exception {
+        try (JdbcChangeTableTransport a = new JdbcChangeTableTransport(url, "sa", "", 10);
+             JdbcChangeTableTransport b = new JdbcChangeTableTransport(url, "sa", "", 10);
+             Connection slow = DriverManager.getConnection(url, "sa", "")) {
+
+            Set<String> received = ConcurrentHashMap.newKeySet();
+            b.subscribe(listener(received));
+
+            // Takes the next sequence number but commits only after 300 later rows are read
+            slow.setAutoCommit(false);
+            try (PreparedStatement ps = slow.prepareStatement(
+                    "INSERT INTO todo_invalidations (origin, todo_id) VALUES ('elsewhere', 'late')")) {
+                ps.executeUpdate();
+            }
+
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 300; i++) ids.add("id" + i);
+            a.publish(ids);
+            awaitTrue(() -> received.size() == 300);
+
+            slow.commit();
+            awaitTrue(() -> received.contains("late"));
+        }
+    }
+
+    @Test
+    void ownInvalidationsAreNotDeliveredBack() throws Exception {
+        try (JdbcChangeTableTransport a = new JdbcChangeTableTransport(url, "sa", "", 10);
+             JdbcChangeTableTransport b = new JdbcChangeTableTransport(url, "sa", "", 10)) {
+
+            Set<String> heardByA = ConcurrentHashMap.newKeySet();
+            Set<String> heardByB = ConcurrentHashMap.newKeySet();
+            a.subscribe(listener(heardByA));
+            b.subscribe(listener(heardByB));
+
+            a.publish(List.of("1"));
+            b.publish(List.of("2"));
+            awaitTrue(() -> heardByA.contains("2") && heardByB.contains("1"));
+            assertFalse(heardByA.contains("1"));
+            assertFalse(heardByB.contains("2"));
+        }
+    }
+
+    private static InvalidationTransport.Listener listener(Set<String> heard) {
+        return new InvalidationTransport.Listener() {
+            @Override
+            public void invalidate(Collection<String> ids) {
+                heard.addAll(ids);
+            }
+
+            @Override
+            public void invalidateAll() {}
+        };
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
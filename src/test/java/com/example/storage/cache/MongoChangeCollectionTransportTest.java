@@ -0,0 +1,82 @@
+package com.example.storage.cache;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoChangeCollectionTransportTest {
+
+    private MongoServer server;
+    private String connectionString;
+
+    @BeforeEach
+    void startServer() {
+        server = new MongoServer(new MemoryBackend());
+        connectionString = server.bindAndGetConnectionString();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.shutdownNow();
+    }
+
+    @Test
+    void otherNodesReceiveBatchesStampedByTheServer() throws Exception {
+        try (MongoChangeCollectionTransport a = open();
+             MongoChangeCollectionTransport b = open();
+             MongoClient client = MongoClients.create(connectionString)) {
+
+            Set<String> heardByA = ConcurrentHashMap.newKeySet();
+            Set<String> heardByB = ConcurrentHashMap.newKeySet();
+            a.subscribe(listener(heardByA));
+            b.subscribe(listener(heardByB));
+
+            a.publish(List.of("1", "2"));
+            awaitTrue(() -> heardByB.containsAll(List.of("1", "2")));
+            assertTrue(heardByA.isEmpty());
+
+            Document stored = client.getDatabase("db").getCollection("todos_invalidations").find().first();
+            assertNotNull(stored);
+            assertTrue(Math.abs(stored.getDate("at").getTime() - new Date().getTime()) < 60_000);
+        }
+    }
+
+    private MongoChangeCollectionTransport open() {
+        return new MongoChangeCollectionTransport(connectionString, "db", "todos", 10);
+    }
+
+    private static InvalidationTransport.Listener listener(Set<String> heard) {
+        return new InvalidationTransport.Listener() {
+            @Override
+            public void invalidate(Collection<String> ids) {
+                heard.addAll(ids);
+            }
+
+            @Override
+            public void invalidateAll() {}
+        };
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.storage.memory;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTodoStorageTest {
+
+    @Test
+    void concurrentUpdatesAreLastWriterWins() throws Exception {
+        InMemoryTodoStorage storage = new InMemoryTodoStorage();
+        Todo todo = new Todo(null, "title", "desc", false);
+        storage.save(todo);
+        String id = todo.getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        storage.update(new Todo(id, "t" + thread + "-" + i, "d", i % 2 == 0));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(storage.retrieve(id).orElseThrow().getTitle().endsWith("-1999"));
+    }
+
+    @Test
+    void updateKeepsOwnerAndRejectsOtherTenants() {
+        InMemoryTodoStorage storage = new InMemoryTodoStorage();
+        Todo todo = new Todo(null, "title", "desc", false, "alice");
+        storage.save(todo);
+
+        storage.update(new Todo(todo.getId(), "renamed", "desc", true, "bob"));
+        assertEquals("alice", storage.retrieve(todo.getId()).orElseThrow().getOwner());
+
+        Todo foreign = new Todo(todo.getId(), "stolen", "desc", true);
+        assertThrows(StorageException.class, () -> storage.forTenant("bob").update(foreign));
+        assertEquals("renamed", storage.retrieve(todo.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void updateOfMissingTodoFails() {
+        InMemoryTodoStorage storage = new InMemoryTodoStorage();
+        assertThrows(StorageException.class, () -> storage.update(new Todo("42", "t", "d", false)));
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.storage.mongo;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.scan.ParallelScanOptions;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour both Mongo storages must share, run against an in-process
+ * wire-protocol server so no mongod is needed.
+ */
+abstract class AbstractMongoTodoStorageTest {
+
+    static MongoServer server;
+    static String connectionString;
+
+    String collection;
+    TodoStorage storage;
+
+    @BeforeAll
+    static void startServer() {
+        server = new MongoServer(new MemoryBackend());
+        connectionString = server.bindAndGetConnectionString();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.shutdownNow();
+    }
+
+    abstract TodoStorage open(String connectionString, String database, String collection);
+
+    @BeforeEach
+    void openStorage() {
+        collection = "todos_" + UUID.randomUUID().toString().replace("-", "");
+        storage = open(connectionString, "test", collection);
+    }
+
+    @AfterEach
+    void closeStorage() {
+        storage.close();
+    }
+
+    @Test
+    void savedTodoCanBeRetrieved() {
+        Todo todo = new Todo(null, "title", "desc", false);
+        storage.save(todo);
+
+        Optional<Todo> found = storage.retrieve(todo.getId());
+
+        assertTrue(found.isPresent());
+        assertEquals("title", found.get().getTitle());
+        assertEquals("desc", found.get().getDescription());
+        assertFalse(found.get().isCompleted());
+    }
+
+    @Test
+    void saveAllAssignsIdsInOrder() {
+        List<Todo> batch = todos(5, false);
+        storage.saveAll(batch);
+
+        for (Todo todo : batch) {
+            assertEquals(todo.getTitle(), storage.retrieve(todo.getId()).orElseThrow().getTitle());
+        }
+    }
+
+    @Test
+    void tenantViewsOnlySeeTheirOwnTodos() {
+        TodoStorage alice = storage.forTenant("alice");
+        TodoStorage bob = storage.forTenant("bob");
+        Todo mine = new Todo(null, "mine", "d", false);
+        alice.save(mine);
+        bob.save(new Todo(null, "theirs", "d", true));
+
+        assertEquals("alice", mine.getOwner());
+        assertTrue(bob.retrieve(mine.getId()).isEmpty());
+        assertEquals(1, alice.count());
+        assertEquals(new TodoStats(2, 1), storage.stats());
+        assertThrows(StorageException.class, () -> bob.update(new Todo(mine.getId(), "x", "y", true)));
+        assertTrue(bob.deleteAndGetCompleted(mine.getId()).isEmpty());
+        assertTrue(alice.retrieve(mine.getId()).isPresent());
+    }
+
+    @Test
+    void updateAndDeleteReportThePreviousCompletedFlag() {
+        Todo todo = new Todo(null, "t", "d", false);
+        storage.save(todo);
+
+        assertFalse(storage.updateAndGetPreviousCompleted(new Todo(todo.getId(), "t", "d", true)));
+        assertTrue(storage.updateAndGetPreviousCompleted(new Todo(todo.getId(), "t2", "d", true)));
+        assertEquals(Optional.of(true), storage.deleteAndGetCompleted(todo.getId()));
+        assertEquals(Optional.empty(), storage.deleteAndGetCompleted(todo.getId()));
+    }
+
+    @Test
+    void updateOfMissingTodoFails() {
+        String missing = "0123456789abcdef01234567";
+        assertThrows(StorageException.class, () -> storage.update(new Todo(missing, "t", "d", true)));
+        assertThrows(StorageException.class, () -> storage.updateAndGetPreviousCompleted(new Todo(missing, "t", "d", true)));
+    }
+
+    @Test
+    void malformedIdIsAStorageException() {
+        assertThrows(StorageException.class, () -> storage.retrieve("not-an-object-id"));
+    }
+
+    @Test
+    void countsAndStatsAgree() {
+        storage.saveAll(todos(3, true));
+        storage.saveAll(todos(4, false));
+
+        assertEquals(7, storage.count());
+        assertEquals(3, storage.countByCompleted(true));
+        assertEquals(4, storage.countByCompleted(false));
+        assertEquals(new TodoStats(7, 3), storage.stats());
+    }
+
+    @Test
+    void purgeRemovesOnlyCompletedTodosInChunks() {
+        storage.saveAll(todos(5, true));
+        List<Todo> open = todos(3, false);
+        storage.saveAll(open);
+
+        List<String> first = storage.purgeCompleted(3, true);
+        List<String> second = storage.purgeCompleted(3, true);
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals(List.of(), storage.purgeCompleted(3, true));
+        assertEquals(new TodoStats(3, 0), storage.stats());
+        for (String id : first) assertTrue(storage.retrieve(id).isEmpty());
+    }
+
+    @Test
+    void purgeReportsAndArchivesOnlyWhatItDeleted() throws Exception {
+        List<Todo> saved = todos(600, true);
+        storage.saveAll(saved);
+        List<String> all = new ArrayList<>(ids(saved));
+        Collections.shuffle(all);
+
+        // A concurrent client deletes half the todos and reopens the rest while the purge runs
+        Set<String> deletedByOther = ConcurrentHashMap.newKeySet();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        Future<?> writer = other.submit(() -> {
+            for (int i = 0; i < all.size(); i++) {
+                String id = all.get(i);
+                if (i % 2 == 0) {
+                    if (storage.deleteAndGetCompleted(id).isPresent()) deletedByOther.add(id);
+                } else {
+                    try {
+                        storage.update(new Todo(id, "reopened", "d", false));
+                    } catch (StorageException e) {
+                        // already purged
+                    }
+                }
+            }
+        });
+
+        List<String> purged = new ArrayList<>();
+        List<String> chunk;
+        while (!(chunk = storage.purgeCompleted(25, true)).isEmpty() || !writer.isDone()) purged.addAll(chunk);
+        writer.get();
+        other.shutdown();
+
+        Set<String> purgedSet = new HashSet<>(purged);
+        assertEquals(purged.size(), purgedSet.size(), "an id was reported twice");
+        for (String id : purgedSet) assertFalse(deletedByOther.contains(id), "reported a delete it did not do: " + id);
+
+        Set<String> remaining = ids(storage.retrieveAll());
+        for (String id : remaining) assertFalse(purgedSet.contains(id), "reported a todo that still exists: " + id);
+        assertEquals(all.size(), purgedSet.size() + deletedByOther.size() + remaining.size());
+
+        try (MongoClient client = MongoClients.create(connectionString)) {
+            Set<String> archived = new HashSet<>();
+            for (Document d : client.getDatabase("test").getCollection(collection + "_archive").find()) {
+                archived.add(d.getObjectId("_id").toHexString());
+            }
+            assertEquals(purgedSet, archived);
+        }
+    }
+
+    @Test
+    void scanSeesEveryTodo() {
+        List<Todo> saved = todos(250, false);
+        storage.saveAll(saved);
+
+        List<Todo> scanned = new ArrayList<>();
+        storage.scan(scanned::add);
+
+        assertEquals(ids(saved), ids(scanned));
+        assertEquals(ids(saved), ids(storage.retrieveAll()));
+    }
+
+    @Test
+    void parallelScanSeesEveryTodoOnce() {
+        // The in-process server implements $sample with a random sort comparator,
+        // which TimSort rejects from 32 documents up
+        List<Todo> saved = todos(31, false);
+        storage.saveAll(saved);
+
+        ParallelScanOptions options = new ParallelScanOptions(4, 8);
+        try (Stream<Todo> stream = storage.parallelScan(options)) {
+            List<Todo> scanned = stream.toList();
+            assertEquals(saved.size(), scanned.size());
+            assertEquals(ids(saved), ids(scanned));
+        }
+    }
+
+    @Test
+    void parallelScanOfATenantStaysInsideIt() {
+        TodoStorage alice = storage.forTenant("alice");
+        alice.saveAll(todos(12, false));
+        storage.forTenant("bob").saveAll(todos(12, false));
+
+        try (Stream<Todo> stream = alice.parallelScan(new ParallelScanOptions(3, 8))) {
+            List<Todo> scanned = stream.toList();
+            assertEquals(12, scanned.size());
+            assertTrue(scanned.stream().allMatch(t -> "alice".equals(t.getOwner())));
+        }
+    }
+
+    static List<Todo> todos(int n, boolean completed) {
+        List<Todo> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) list.add(new Todo(null, "todo " + i, "d", completed));
+        return list;
+    }
+
+    static Set<String> ids(List<Todo> todos) {
+        Set<String> ids = new HashSet<>();
+        for (Todo t : todos) ids.add(t.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.storage.mongo;
+
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoAsyncOptionsTest {
+
+    @Test
+    void writeConcernNamesParseUnderATurkishDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            Properties props = new Properties();
+            props.setProperty("mongo.async.writeConcern", "majority");
+            assertEquals(WriteConcern.MAJORITY, MongoAsyncOptions.fromProperties(props).writeConcern());
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void numericWriteConcernIsAWValue() {
+        Properties props = new Properties();
+        props.setProperty("mongo.async.writeConcern", "2");
+        assertEquals(new WriteConcern(2), MongoAsyncOptions.fromProperties(props).writeConcern());
+    }
+}
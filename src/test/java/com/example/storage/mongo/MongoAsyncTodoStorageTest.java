@@ -0,0 +1,57 @@
+package com.example.storage.mongo;
+
+import com.example.model.Todo;
+import com.example.storage.TodoStorage;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.ImportFormat;
+import com.example.storage.bulk.TodoRecordReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoAsyncTodoStorageTest extends AbstractMongoTodoStorageTest {
+
+    @Override
+    TodoStorage open(String connectionString, String database, String collection) {
+        Properties props = new Properties();
+        props.setProperty("mongo.async.maxInFlight", "4");
+        return new MongoAsyncTodoStorage(connectionString, database, collection,
+                MongoAsyncOptions.fromProperties(props));
+    }
+
+    @Test
+    void concurrentAsyncSavesAreAllReadable() {
+        MongoAsyncTodoStorage async = (MongoAsyncTodoStorage) storage;
+
+        List<CompletableFuture<Todo>> saves = new ArrayList<>();
+        for (int i = 0; i < 200; i++) saves.add(async.saveAsync(new Todo(null, "t" + i, "d", i % 2 == 0)));
+        CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).join();
+
+        for (CompletableFuture<Todo> save : saves) {
+            Todo saved = save.join();
+            assertEquals(saved.getTitle(), async.retrieveAsync(saved.getId()).join().orElseThrow().getTitle());
+        }
+        assertEquals(100L, async.countByCompletedAsync(true).join());
+    }
+
+    @Test
+    void bulkImportPipelinesEveryChunk() {
+        StringBuilder csv = new StringBuilder("title,description,completed\n");
+        for (int i = 0; i < 1000; i++) csv.append("t").append(i).append(",d,").append(i % 4 == 0).append('\n');
+
+        BulkImportResult result;
+        try (TodoRecordReader reader = new TodoRecordReader(new StringReader(csv.toString()), ImportFormat.CSV, 64)) {
+            result = storage.bulkImport(reader);
+        }
+
+        assertEquals(1000, result.rows());
+        assertEquals(1000, storage.count());
+        assertEquals(250, storage.countByCompleted(true));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.storage.mongo;
+
+import com.example.storage.TodoStorage;
+
+class MongoTodoStorageTest extends AbstractMongoTodoStorageTest {
+
+    @Override
+    TodoStorage open(String connectionString, String database, String collection) {
+        return new MongoTodoStorage(connectionString, database, collection);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.storage.mysql;
+
+import com.example.model.Todo;
+import com.example.model.TodoStats;
+import com.example.storage.StorageException;
+import com.example.storage.bulk.BulkImportResult;
+import com.example.storage.bulk.ImportFormat;
+import com.example.storage.bulk.TodoRecordReader;
+import com.example.storage.scan.ParallelScanOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against H2 in MySQL mode, which the storage supports for local use.
+ */
+class MySqlTodoStorageTest {
+
+    private String url;
+    private MySqlTodoStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+        storage = new MySqlTodoStorage(url, "sa", "");
+    }
+
+    @Test
+    void rowsWithNullCompletedAreTreatedAsOpen() throws Exception {
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO todos (title, description, completed) VALUES ('a', 'd', NULL)");
+            st.executeUpdate("INSERT INTO todos (title, description, completed) VALUES ('b', 'd', NULL)");
+        }
+        List<Todo> seeded = storage.retrieveAll();
+        assertEquals(2, storage.countByCompleted(false));
+        assertEquals(new TodoStats(2, 0), storage.stats());
+
+        Todo a = seeded.get(0);
+        a.setCompleted(true);
+        assertFalse(storage.updateAndGetPreviousCompleted(a));
+        assertTrue(storage.retrieve(a.getId()).orElseThrow().isCompleted());
+
+        assertEquals(Optional.of(false), storage.deleteAndGetCompleted(seeded.get(1).getId()));
+        assertEquals(new TodoStats(1, 1), storage.stats());
+    }
+
+    @Test
+    void purgeSkipsRowsLockedByOtherTransactions() throws Exception {
+        for (int i = 0; i < 10; i++) storage.save(new Todo(null, "t" + i, "d", true));
+
+        try (Connection c = DriverManager.getConnection(url, "sa", "")) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                st.executeQuery("SELECT id FROM todos WHERE id <= 3 FOR UPDATE").close();
+            }
+
+            assertEquals(List.of("4", "5", "6", "7", "8", "9", "10"), storage.purgeCompleted(100, true));
+            c.commit();
+        }
+
+        assertEquals(List.of("1", "2", "3"), storage.purgeCompleted(100, true));
+        assertEquals(0, storage.count());
+    }
+
+    @Test
+    void unscopedPurgeUsesCompletedIndex() throws Exception {
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN SELECT id FROM todos WHERE completed = TRUE ORDER BY id LIMIT 5")) {
+            rs.next();
+            assertTrue(rs.getString(1).toUpperCase().contains("IDX_TODOS_COMPLETED_ID"), rs.getString(1));
+        }
+    }
+
+    @Test
+    void purgeOnlyTakesCompletedTodosAndArchivesThem() throws Exception {
+        Todo open = new Todo(null, "open", "d", false);
+        Todo done = new Todo(null, "done", "d", true);
+        storage.save(open);
+        storage.save(done);
+
+        assertEquals(List.of(done.getId()), storage.purgeCompleted(10, true));
+        assertTrue(storage.retrieve(open.getId()).isPresent());
+
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT title FROM todos_archive")) {
+            assertTrue(rs.next());
+            assertEquals("done", rs.getString(1));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void bulkImportFallsBackToBatchedInsertsOnH2() {
+        StringBuilder csv = new StringBuilder("title,description,completed,owner\n");
+        for (int i = 0; i < 25; i++) csv.append("t").append(i).append(",\"d, ").append(i).append("\",").append(i % 5 == 0).append(",bob\n");
+
+        BulkImportResult result;
+        try (TodoRecordReader reader = new TodoRecordReader(new StringReader(csv.toString()), ImportFormat.CSV, 10)) {
+            result = storage.forTenant("alice").bulkImport(reader);
+        }
+
+        assertEquals(25, result.rows());
+        assertEquals(new TodoStats(25, 5), storage.stats());
+        // The tenant view stamps its own owner over the file's
+        assertEquals(25, storage.forTenant("alice").count());
+        Todo first = storage.retrieveAll().stream().filter(t -> t.getTitle().equals("t3")).findFirst().orElseThrow();
+        assertEquals("d, 3", first.getDescription());
+    }
+
+    @Test
+    void failedBulkImportKeepsEarlierChunksAndReportsThem() {
+        String ndjson = """
+                {"title": "a"}
+                {"title": "b"}
+                {"title": "c"}
+                {"title": "d"}
+                {not json
+                """;
+
+        try (TodoRecordReader reader = new TodoRecordReader(new StringReader(ndjson), ImportFormat.NDJSON, 2)) {
+            StorageException e = assertThrows(StorageException.class, () -> storage.bulkImport(reader));
+            assertTrue(e.getMessage().contains("after 4 rows"), e.getMessage());
+        }
+        assertEquals(4, storage.count());
+    }
+
+    @Test
+    void parallelScanReadsEachTenantRowOnce() {
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) batch.add(new Todo(null, "t" + i, "d", false, i % 2 == 0 ? "alice" : "bob"));
+        storage.saveAll(batch);
+
+        try (Stream<Todo> rows = storage.forTenant("alice").parallelScan(new ParallelScanOptions(4, 64))) {
+            List<Todo> scanned = rows.toList();
+            assertEquals(250, scanned.size());
+            assertEquals(250, scanned.stream().map(Todo::getId).distinct().count());
+            assertTrue(scanned.stream().allMatch(t -> "alice".equals(t.getOwner())));
+        }
+        try (Stream<Todo> rows = storage.forTenant("nobody").parallelScan(new ParallelScanOptions(4, 64))) {
+            assertEquals(0, rows.count());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.storage.scan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdRangeTest {
+
+    @Test
+    void splitsIntoContiguousRangesOfNearEqualWidth() {
+        assertEquals(List.of(new IdRange(1, 4), new IdRange(5, 8), new IdRange(9, 10)), IdRange.split(1, 10, 3));
+        assertEquals(List.of(new IdRange(1, 5), new IdRange(6, 10)), IdRange.split(1, 10, 2));
+    }
+
+    @Test
+    void neverReturnsMorePartsThanIds() {
+        List<IdRange> ranges = IdRange.split(5, 7, 16);
+
+        assertEquals(List.of(new IdRange(5, 5), new IdRange(6, 6), new IdRange(7, 7)), ranges);
+        assertEquals(List.of(new IdRange(42, 42)), IdRange.split(42, 42, 4));
+        assertEquals(List.of(new IdRange(1, 100)), IdRange.split(1, 100, 1));
+    }
+
+    @Test
+    void emptyIdSpaceHasNoRanges() {
+        assertEquals(List.of(), IdRange.split(10, 9, 4));
+    }
+
+    @Test
+    void coversEveryIdExactlyOnce() {
+        for (int parts = 1; parts <= 12; parts++) {
+            List<IdRange> ranges = IdRange.split(3, 1000, parts);
+
+            assertTrue(ranges.size() <= parts);
+            assertEquals(3, ranges.get(0).from());
+            assertEquals(1000, ranges.get(ranges.size() - 1).to());
+            for (int i = 1; i < ranges.size(); i++) {
+                assertEquals(ranges.get(i - 1).to() + 1, ranges.get(i).from(), "gap or overlap at " + i);
+            }
+        }
+    }
+
+    @Test
+    void rangesEndingAtLongMaxDoNotOverflow() {
+        List<IdRange> ranges = IdRange.split(Long.MAX_VALUE - 9, Long.MAX_VALUE, 3);
+
+        assertEquals(3, ranges.size());
+        assertEquals(Long.MAX_VALUE, ranges.get(2).to());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.storage.scan;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedScanTest {
+
+    @Test
+    void mergesEveryRowOfEveryPartitionOnce() {
+        List<ScanPartition> partitions = new ArrayList<>();
+        for (int p = 0; p < 4; p++) partitions.add(rows(p * 1000, 1000));
+
+        try (Stream<Todo> stream = PartitionedScan.stream(partitions, new ParallelScanOptions(4, 300))) {
+            Set<String> ids = new HashSet<>();
+            stream.forEach(t -> assertTrue(ids.add(t.getId()), "duplicate " + t.getId()));
+            assertEquals(4000, ids.size());
+        }
+    }
+
+    @Test
+    void noPartitionsIsAnEmptyStream() {
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(), ParallelScanOptions.defaults())) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void partitionFailureSurfacesToTheConsumer() {
+        IllegalStateException boom = new IllegalStateException("connection reset");
+        ScanPartition failing = sink -> {
+            rows(0, 10).scan(sink);
+            throw boom;
+        };
+
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(failing, rows(10, 5000)),
+                new ParallelScanOptions(2, 512))) {
+            StorageException e = assertThrows(StorageException.class, () -> stream.forEach(t -> { }));
+            assertSame(boom, e.getCause());
+        }
+    }
+
+    @Test
+    void closingEarlyStopsReadersBlockedOnAFullBuffer() throws Exception {
+        int partitions = 3;
+        CountDownLatch finished = new CountDownLatch(partitions);
+        List<ScanPartition> endless = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            endless.add(sink -> {
+                try {
+                    for (long i = 0; ; i++) sink.accept(new Todo(String.valueOf(i), "t", "d", false));
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        try (Stream<Todo> stream = PartitionedScan.stream(endless, new ParallelScanOptions(partitions, 256))) {
+            assertEquals(10, stream.limit(10).count());
+        }
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS), "readers still running after close");
+    }
+
+    @Test
+    void closingRunsCancelActionsForReadersThatIgnoreInterrupts() {
+        CountDownLatch killed = new CountDownLatch(1);
+        AtomicInteger stopped = new AtomicInteger();
+        ScanPartition stubborn = sink -> {
+            sink.onCancel(killed::countDown);
+            // One full batch, so the consumer gets its row
+            rows(0, 16).scan(sink);
+            // Like a streaming driver blocked in a socket read: only the cancel action frees it
+            while (true) {
+                try {
+                    if (killed.await(10, TimeUnit.SECONDS)) break;
+                } catch (InterruptedException ignored) {
+                    // keep waiting
+                }
+            }
+            stopped.incrementAndGet();
+            throw new IllegalStateException("query was killed");
+        };
+
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(stubborn), new ParallelScanOptions(1, 16))) {
+            assertEquals(1, stream.limit(1).count());
+        }
+
+        // close() waits for the reader, and the error its cancel caused is not reported
+        assertEquals(1, stopped.get());
+    }
+
+    @Test
+    void cancelActionsOfFinishedPartitionsAreDropped() {
+        AtomicInteger cancelled = new AtomicInteger();
+        ScanPartition quick = sink -> {
+            sink.onCancel(cancelled::incrementAndGet);
+            rows(0, 10).scan(sink);
+        };
+
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(quick), new ParallelScanOptions(1, 512))) {
+            assertEquals(10, stream.count());
+        }
+        assertEquals(0, cancelled.get());
+    }
+
+    @Test
+    void bufferSmallerThanABatchIsStillABound() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        ScanPartition big = sink -> {
+            for (int i = 0; i < 10_000; i++) {
+                sink.accept(new Todo(String.valueOf(i), "t", "d", false));
+                produced.incrementAndGet();
+            }
+        };
+
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(big), new ParallelScanOptions(1, 10))) {
+            Iterator<Todo> it = stream.iterator();
+            assertTrue(it.hasNext());
+            Thread.sleep(200);
+
+            // One queued batch of 10, the one being consumed and the one the reader is filling
+            assertTrue(produced.get() <= 3 * 10, "reader ran ahead to " + produced.get());
+        }
+    }
+
+    @Test
+    void readersWaitForASlowConsumer() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        ScanPartition big = sink -> {
+            for (int i = 0; i < 100_000; i++) {
+                sink.accept(new Todo(String.valueOf(i), "t", "d", false));
+                produced.incrementAndGet();
+            }
+        };
+
+        try (Stream<Todo> stream = PartitionedScan.stream(List.of(big), new ParallelScanOptions(1, 512))) {
+            Iterator<Todo> it = stream.iterator();
+            assertTrue(it.hasNext());
+            Thread.sleep(200);
+
+            // Two queued batches, the one being consumed and the one the reader is filling
+            assertTrue(produced.get() <= 5 * 256, "reader ran ahead to " + produced.get());
+        }
+    }
+
+    private static ScanPartition rows(int firstId, int count) {
+        return sink -> {
+            for (int i = firstId; i < firstId + count; i++) sink.accept(new Todo(String.valueOf(i), "t", "d", false));
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.storage.snapshot;
+
+import com.example.model.Todo;
+import com.example.storage.StorageException;
+import com.example.storage.TodoStorage;
+import com.example.storage.memory.InMemoryTodoStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class SnapshotRoundTripTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoreReproducesEveryTodoAcrossSegments() {
+        TodoStorage source = new InMemoryTodoStorage();
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            todos.add(new Todo(null, "todo " + i, i % 7 == 0 ? null : "desc " + i, i % 3 == 0,
+                    i % 2 == 0 ? "alice" : null));
+        }
+        // One record larger than the buffer, which is written on its own
+        todos.add(new Todo(null, "big", "x".repeat(3000), false));
+        source.saveAll(todos);
+
+        SnapshotOptions options = new SnapshotOptions(3, 1024, 64, 2);
+        SnapshotResult written = new SnapshotWriter(options).write(source, dir);
+        assertEquals(501, written.records());
+        assertEquals(3, written.segments());
+
+        TodoStorage target = new InMemoryTodoStorage();
+        SnapshotResult restored = new SnapshotReader(options).restore(dir, target);
+        assertEquals(501, restored.records());
+        assertEquals(written.bytes(), restored.bytes());
+
+        assertEquals(describe(source.retrieveAll()), describe(target.retrieveAll()));
+    }
+
+    @Test
+    void emptyStorageRoundTrips() {
+        SnapshotResult written = new SnapshotWriter().write(new InMemoryTodoStorage(), dir);
+        assertEquals(0, written.records());
+
+        TodoStorage target = new InMemoryTodoStorage();
+        assertEquals(0, new SnapshotReader().restore(dir, target).records());
+        assertEquals(0, target.count());
+    }
+
+    @Test
+    void corruptSegmentIsRejectedBeforeAnythingIsRestored() throws IOException {
+        TodoStorage source = new InMemoryTodoStorage();
+        for (int i = 0; i < 100; i++) source.save(new Todo(null, "todo " + i, "desc", false));
+        new SnapshotWriter(new SnapshotOptions(2, 4096, 10, 1)).write(source, dir);
+
+        // Flip one byte in the middle of the second segment
+        Path segment = dir.resolve(SnapshotFormat.segmentName(1));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long pos = channel.size() / 2;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, pos);
+            b.put(0, (byte) (b.get(0) ^ 0xFF)).rewind();
+            channel.write(b, pos);
+        }
+
+        TodoStorage target = new InMemoryTodoStorage();
+        StorageException e = assertThrows(StorageException.class,
+                () -> new SnapshotReader().restore(dir, target));
+        assertTrue(e.getMessage().contains("corrupt"), e.getMessage());
+        assertEquals(0, target.count());
+    }
+
+    @Test
+    void failedRestoreReportsTheTodosAlreadyCommitted() {
+        TodoStorage source = new InMemoryTodoStorage();
+        for (int i = 0; i < 100; i++) source.save(new Todo(null, "todo " + i, "desc", false));
+        SnapshotOptions options = new SnapshotOptions(2, 4096, 10, 1);
+        new SnapshotWriter(options).write(source, dir);
+
+        // The fourth batch fails; the three before it stay committed
+        AtomicInteger batches = new AtomicInteger();
+        TodoStorage target = spy(new InMemoryTodoStorage());
+        doAnswer(inv -> {
+            if (batches.incrementAndGet() == 4) throw new StorageException("disk full");
+            return inv.callRealMethod();
+        }).when(target).saveAll(anyList());
+
+        StorageException e = assertThrows(StorageException.class,
+                () -> new SnapshotReader(options).restore(dir, target));
+        assertTrue(e.getMessage().contains("after 30 todos were committed"), e.getMessage());
+        assertTrue(e.getMessage().contains("disk full"), e.getMessage());
+        assertEquals(30, target.count());
+    }
+
+    @Test
+    void directoryWithoutManifestIsRejected() {
+        new SnapshotWriter().write(new InMemoryTodoStorage(), dir);
+        assertDoesNotThrow(() -> new SnapshotReader().verify(dir));
+
+        assertThrows(StorageException.class, () -> new SnapshotReader().verify(dir.resolve("missing")));
+    }
+
+    private static List<String> describe(List<Todo> todos) {
+        return todos.stream()
+                .map(t -> t.getTitle() + "|" + t.getDescription() + "|" + t.isCompleted() + "|" + t.getOwner())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+}